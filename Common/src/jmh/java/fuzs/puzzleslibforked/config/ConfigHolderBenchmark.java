@@ -0,0 +1,112 @@
+package fuzs.puzzleslibforked.config;
+
+import com.google.common.collect.ImmutableMap;
+import com.mojang.datafixers.util.Either;
+import com.mojang.datafixers.util.Unit;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * throughput of {@link ConfigHolder#get(Class)}, which mods call in per-tick and per-render code
+ * <p>{@link #uncached} shows how configs used to be read, checking for errors on every single access
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigHolderBenchmark {
+    private BenchmarkConfigHolder holder;
+
+    @Setup
+    public void setup() {
+        BenchmarkConfigDataHolder dataHolder = new BenchmarkConfigDataHolder();
+        dataHolder.load();
+        this.holder = new BenchmarkConfigHolder(ImmutableMap.of(BenchmarkConfig.class, dataHolder));
+    }
+
+    @Benchmark
+    public BenchmarkConfig get() {
+        return this.holder.get(BenchmarkConfig.class);
+    }
+
+    @Benchmark
+    public BenchmarkConfig uncached() {
+        BenchmarkConfigDataHolder dataHolder = (BenchmarkConfigDataHolder) this.holder.getHolder(BenchmarkConfig.class);
+        return dataHolder.configUncached();
+    }
+
+    /**
+     * stores holders by class just like the mod loader specific implementations do after baking
+     */
+    private static class BenchmarkConfigHolder implements ConfigHolder {
+        private final Map<Class<? extends ConfigCore>, ConfigDataHolderImpl<? extends ConfigCore>> configsByClass;
+
+        BenchmarkConfigHolder(Map<Class<? extends ConfigCore>, ConfigDataHolderImpl<? extends ConfigCore>> configsByClass) {
+            this.configsByClass = configsByClass;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T extends ConfigCore> ConfigDataHolder<T> getHolder(Class<T> clazz) {
+            ConfigDataHolderImpl<? extends ConfigCore> holder = this.configsByClass.get(clazz);
+            Objects.requireNonNull(holder, String.format("No config holder available for type %s", clazz));
+            return (ConfigDataHolder<T>) holder;
+        }
+
+        @Override
+        public void bakeConfigs(String modId) {
+
+        }
+    }
+
+    /**
+     * performs the same checks as the mod loader specific implementations
+     */
+    private static class BenchmarkConfigDataHolder extends ConfigDataHolderImpl<BenchmarkConfig> {
+        /**
+         * stand-in for the mod loader's config data
+         */
+        private Object configData;
+
+        BenchmarkConfigDataHolder() {
+            super(BenchmarkConfig::new);
+        }
+
+        void load() {
+            this.configData = new Object();
+            this.loaded = true;
+            this.updateAvailability();
+        }
+
+        /**
+         * {@link #config()} before availability was cached
+         */
+        BenchmarkConfig configUncached() {
+            return this.findErrorMessage().left().isPresent() ? this.config : null;
+        }
+
+        @Override
+        protected void testAvailable() {
+
+        }
+
+        @Override
+        protected Either<Unit, String> findErrorMessage() {
+            if (this.configData == null) {
+                return Either.right("Config data is missing");
+            } else if (!this.loaded) {
+                return Either.right("Config callbacks have not been loaded");
+            }
+            return Either.left(Unit.INSTANCE);
+        }
+    }
+
+    public static class BenchmarkConfig implements ConfigCore {
+
+    }
+}
@@ -0,0 +1,81 @@
+package fuzs.puzzleslibforked.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * cost of reading a field and invoking a method through {@link ReflectionHelperV2}
+ * <p>the by name benchmarks show the old usage of looking up the member on every call, the reflection benchmarks reuse the member but still go through {@link Field} and {@link Method},
+ * while the accessor benchmarks use method handles and should barely allocate according to <code>gc.alloc.rate.norm</code> reported by the gc profiler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReflectionAccessorBenchmark {
+    private static final Class<?>[] PARAMETER_TYPES = {int.class};
+
+    private BenchmarkTarget target;
+    private Object[] args;
+    private Field field;
+    private Method method;
+    private ReflectionHelperV2.FieldAccessor<Integer> fieldAccessor;
+    private ReflectionHelperV2.MethodInvoker<Integer> methodInvoker;
+
+    @Setup
+    public void setup() {
+        this.target = new BenchmarkTarget();
+        this.args = new Object[]{1};
+        this.field = ReflectionHelperV2.findField(BenchmarkTarget.class, "value");
+        this.method = ReflectionHelperV2.findMethod(BenchmarkTarget.class, "add", PARAMETER_TYPES);
+        this.fieldAccessor = ReflectionHelperV2.<Integer>findFieldAccessor(BenchmarkTarget.class, "value").orElseThrow();
+        this.methodInvoker = ReflectionHelperV2.<Integer>findMethodInvoker(BenchmarkTarget.class, "add", PARAMETER_TYPES).orElseThrow();
+    }
+
+    @Benchmark
+    public Optional<Integer> getValueByName() {
+        return ReflectionHelperV2.getValue(BenchmarkTarget.class, "value", this.target);
+    }
+
+    @Benchmark
+    public Optional<Integer> getValue() {
+        return ReflectionHelperV2.getValue(this.field, this.target);
+    }
+
+    @Benchmark
+    public Integer fieldAccessor() {
+        return this.fieldAccessor.get(this.target);
+    }
+
+    @Benchmark
+    public Optional<Integer> invokeMethodByName() {
+        return ReflectionHelperV2.invokeMethod(BenchmarkTarget.class, "add", PARAMETER_TYPES, this.target, this.args);
+    }
+
+    @Benchmark
+    public Optional<Integer> invokeMethod() {
+        return ReflectionHelperV2.invokeMethod(this.method, this.target, this.args);
+    }
+
+    @Benchmark
+    public Integer methodInvoker() {
+        return this.methodInvoker.invoke(this.target, this.args);
+    }
+
+    /**
+     * private members just like the ones usually accessed via reflection
+     */
+    public static class BenchmarkTarget {
+        private int value = 42;
+
+        private int add(int amount) {
+            return this.value + amount;
+        }
+    }
+}
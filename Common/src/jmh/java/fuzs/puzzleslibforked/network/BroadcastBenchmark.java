@@ -0,0 +1,146 @@
+package fuzs.puzzleslibforked.network;
+
+import fuzs.puzzleslibforked.impl.network.S2CBundleMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientboundCustomPayloadPacket;
+import net.minecraft.network.protocol.game.ServerboundCustomPayloadPacket;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.player.Player;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * bytes allocated for sending a single message to many players, <code>gc.alloc.rate.norm</code> reported by the gc profiler is the amount per broadcast
+ * <p>the per recipient benchmarks show how broadcasts used to work, encoding the message again for every single player
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastBenchmark {
+    @Param({"1", "20", "100"})
+    public int players;
+    private BenchmarkNetworkHandler handler;
+    private MessageBatcher batcher;
+    private BenchmarkMessage message;
+    /**
+     * stand-ins for players, the batcher only uses them as keys
+     */
+    private Object[] targets;
+
+    @Setup
+    public void setup() {
+        this.handler = new BenchmarkNetworkHandler();
+        this.handler.registerCarrier(S2CBundleMessage.class, () -> new S2CBundleMessage(this.handler), MessageDirection.TO_CLIENT, MessageOptions.DEFAULT);
+        this.handler.register(BenchmarkMessage.class, BenchmarkMessage::new, MessageDirection.TO_CLIENT);
+        this.batcher = new MessageBatcher(this.handler);
+        this.message = new BenchmarkMessage(IntStream.range(0, 256).toArray());
+        this.targets = IntStream.range(0, this.players).mapToObj(i -> new Object()).toArray();
+    }
+
+    @Benchmark
+    public void perRecipient(Blackhole blackhole) {
+        for (int i = 0; i < this.players; i++) {
+            blackhole.consume(this.handler.toClientboundPacket(this.message));
+        }
+    }
+
+    @Benchmark
+    public void encodeOnce(Blackhole blackhole) {
+        Packet<?> packet = this.handler.toClientboundPacket(this.message);
+        for (int i = 0; i < this.players; i++) {
+            blackhole.consume(packet);
+        }
+    }
+
+    @Benchmark
+    public void batchedPerRecipient(Blackhole blackhole) {
+        for (Object target : this.targets) {
+            this.batcher.queue(target, blackhole::consume, this.message, this.batcher.encode(this.message));
+        }
+        this.batcher.flush();
+    }
+
+    @Benchmark
+    public void batchedEncodeOnce(Blackhole blackhole) {
+        ByteBuf encoded = this.batcher.encode(this.message);
+        for (Object target : this.targets) {
+            this.batcher.queue(target, blackhole::consume, this.message, encoded);
+        }
+        this.batcher.flush();
+    }
+
+    /**
+     * creates vanilla custom payload packets without the need for any mod loader
+     */
+    private static class BenchmarkNetworkHandler extends NetworkHandlerImpl {
+        private static final ResourceLocation CHANNEL_NAME = new ResourceLocation("puzzleslibforked", "benchmark");
+
+        BenchmarkNetworkHandler() {
+            super("puzzleslibforked");
+        }
+
+        @Override
+        protected <T extends Message<T>> void registerMessageType(MessageType<T> type) {
+
+        }
+
+        @Override
+        protected FriendlyByteBuf createPacketBuffer(MessageType<?> type) {
+            FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+            buf.writeVarInt(type.id());
+            return buf;
+        }
+
+        @Override
+        protected Packet<?> toServerboundPacket(MessageType<?> type, FriendlyByteBuf buf) {
+            return new ServerboundCustomPayloadPacket(CHANNEL_NAME, buf);
+        }
+
+        @Override
+        protected Packet<?> toClientboundPacket(MessageType<?> type, FriendlyByteBuf buf) {
+            return new ClientboundCustomPayloadPacket(CHANNEL_NAME, buf);
+        }
+    }
+
+    public static class BenchmarkMessage implements Message<BenchmarkMessage> {
+        private int[] values;
+
+        public BenchmarkMessage() {
+
+        }
+
+        public BenchmarkMessage(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public void write(FriendlyByteBuf buf) {
+            buf.writeVarIntArray(this.values);
+        }
+
+        @Override
+        public void read(FriendlyByteBuf buf) {
+            this.values = buf.readVarIntArray();
+        }
+
+        @Override
+        public MessageHandler<BenchmarkMessage> makeHandler() {
+            return new MessageHandler<>() {
+
+                @Override
+                public void handle(BenchmarkMessage message, Player player, Object gameInstance) {
+
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package fuzs.puzzleslibforked.capability.data;
+
+import net.minecraft.network.FriendlyByteBuf;
+
+/**
+ * capability component that can additionally be serialized to a compact binary format,
+ * which is used instead of {@link net.minecraft.nbt.CompoundTag} when syncing to clients and copying data on player respawn
+ * <p>{@link CapabilityComponent#write} and {@link CapabilityComponent#read} are still used for saving to disk
+ */
+public interface BinaryCapabilityComponent extends CapabilityComponent {
+
+    /**
+     * @param buf buffer to write to
+     */
+    void writeBuf(FriendlyByteBuf buf);
+
+    /**
+     * @param buf buffer to read from, contains exactly what has been written in {@link #writeBuf}
+     */
+    void readBuf(FriendlyByteBuf buf);
+}
@@ -24,10 +24,11 @@ public interface CapabilityKey<C extends CapabilityComponent> {
 
     /**
      * get capability implementation from <code>provider</code> directly
+     * this is the fastest way of retrieving a capability, prefer it over {@link #maybeGet} in code that runs frequently
      *
      * @param provider      provider to get capability from
      * @param <V>           provider type
-     * @return              capability implementation for this <code>provider</code>
+     * @return              capability implementation for this <code>provider</code>, null if not present
      */
     @Nullable
     <V> C get(@Nullable V provider);
@@ -50,7 +51,9 @@ public interface CapabilityKey<C extends CapabilityComponent> {
      * @return              capability implementation for this <code>provider</code>
      */
     default <V> C orThrow(@Nullable V provider) {
-        return this.maybeGet(provider).orElseThrow(IllegalStateException::new);
+        C capability = this.get(provider);
+        if (capability == null) throw new IllegalStateException("Capability %s not present on %s".formatted(this.getId(), provider));
+        return capability;
     }
 
     /**
@@ -1,6 +1,8 @@
 package fuzs.puzzleslibforked.capability.data;
 
 import fuzs.puzzleslibforked.impl.PuzzlesLib;
+import fuzs.puzzleslibforked.impl.capability.CapabilityDeltaHelper;
+import fuzs.puzzleslibforked.impl.capability.CapabilitySyncScheduler;
 import fuzs.puzzleslibforked.impl.network.S2CSyncCapabilityMessage;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
@@ -22,6 +24,33 @@ public interface PlayerCapabilityKey<C extends CapabilityComponent> extends Capa
      */
     void syncToRemote(ServerPlayer player);
 
+    /**
+     * marks this capability on <code>player</code> as dirty and schedules it for syncing at the end of the current server tick,
+     * the capability is synced only once per tick no matter how often this is called
+     * <p>the capability must implement {@link SyncedCapabilityComponent}, a sync strategy other than {@link SyncStrategy#MANUAL} should be set
+     *
+     * @param player    target for retrieving capability
+     */
+    default void markDirty(ServerPlayer player) {
+        if (!(this.orThrow(player) instanceof SyncedCapabilityComponent syncedCapability)) {
+            throw new IllegalStateException("Unable to sync capability component that is not of type %s".formatted(SyncedCapabilityComponent.class));
+        }
+        syncedCapability.markDirty();
+        CapabilitySyncScheduler.schedule(player, this);
+    }
+
+    /**
+     * limits how often this capability is synced automatically after being marked dirty via {@link #markDirty(ServerPlayer)},
+     * useful for capabilities that change very frequently
+     *
+     * @param ticks     minimum amount of ticks between two automatic syncs, one by default
+     * @return          this key
+     */
+    default PlayerCapabilityKey<C> setSyncInterval(int ticks) {
+        CapabilitySyncScheduler.setSyncInterval(this, ticks);
+        return this;
+    }
+
     /**
      * sync capability to player as defined by <code>syncStrategy</code>>
      *
@@ -43,9 +72,19 @@ public interface PlayerCapabilityKey<C extends CapabilityComponent> extends Capa
                 }
             }
             if (force || syncedCapability.isDirty()) {
-                syncStrategy.sender.accept(new S2CSyncCapabilityMessage(id, holder, capability.toCompoundTag()), receiver);
-                // always mark clean after syncing
-                syncedCapability.markClean();
+                // syncing to a player that just started tracking the holder, nobody else receives this
+                boolean partial = holder != receiver && syncStrategy == SyncStrategy.SELF;
+                S2CSyncCapabilityMessage message;
+                if (syncedCapability.isDeltaSynced()) {
+                    message = CapabilityDeltaHelper.createSyncMessage(id, holder, syncedCapability, capability.toCompoundTag(), force, partial);
+                } else if (capability instanceof BinaryCapabilityComponent binaryCapability) {
+                    message = new S2CSyncCapabilityMessage(id, holder, binaryCapability);
+                } else {
+                    message = new S2CSyncCapabilityMessage(id, holder, capability.toCompoundTag());
+                }
+                if (message != null) syncStrategy.sender.accept(message, receiver);
+                // always mark clean after syncing, unless not all receivers have been updated
+                if (!partial) syncedCapability.markClean();
             }
         } else if (!force) {
             PuzzlesLib.LOGGER.warn("Attempting to sync capability {} that is set to manual syncing", id);
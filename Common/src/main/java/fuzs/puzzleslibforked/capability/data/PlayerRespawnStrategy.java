@@ -1,5 +1,8 @@
 package fuzs.puzzleslibforked.capability.data;
 
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+
 /**
  * modes determining how capability data should be handled when the player entity is recreated, which will usually happen when returning from the end dimension and when respawning
  * this is basically the same class as in {@see <a href="https://github.com/OnyxStudios/Cardinal-Components-API">https://github.com/OnyxStudios/Cardinal-Components-API</a>} for the Fabric mod loader
@@ -53,7 +56,7 @@ public abstract class PlayerRespawnStrategy {
      * @param newCapability target capability component
      */
     protected void actuallyCopy(CapabilityComponent oldCapability, CapabilityComponent newCapability) {
-        newCapability.read(oldCapability.toCompoundTag());
+        copyCapabilityData(oldCapability, newCapability);
     }
 
     /**
@@ -64,4 +67,19 @@ public abstract class PlayerRespawnStrategy {
      * @param keepInventory is the <code>keepInventory</code> game rule enabled
      */
     public abstract void copy(CapabilityComponent oldCapability, CapabilityComponent newCapability, boolean returningFromEnd, boolean keepInventory);
+
+    /**
+     * copies capability data from source to target, goes through {@link BinaryCapabilityComponent} when supported instead of {@link net.minecraft.nbt.CompoundTag}
+     * @param oldCapability source capability component
+     * @param newCapability target capability component
+     */
+    public static void copyCapabilityData(CapabilityComponent oldCapability, CapabilityComponent newCapability) {
+        if (oldCapability instanceof BinaryCapabilityComponent oldBinaryCapability && newCapability instanceof BinaryCapabilityComponent newBinaryCapability) {
+            FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+            oldBinaryCapability.writeBuf(buf);
+            newBinaryCapability.readBuf(buf);
+        } else {
+            newCapability.read(oldCapability.toCompoundTag());
+        }
+    }
 }
@@ -19,4 +19,15 @@ public interface SyncedCapabilityComponent extends CapabilityComponent {
      * the capability has been synced and is equal on both server and remote
      */
     void markClean();
+
+    /**
+     * when enabled only changes to the serialized data since the last sync are sent, instead of the full component every time
+     * <p>useful for components with lots of data where usually only a small part changes, the client must be able to serialize the component to the same data the server sent
+     * <p>full data is still sent when syncing on login, dimension change and to players that start tracking the holder
+     *
+     * @return  is delta syncing used for this capability
+     */
+    default boolean isDeltaSynced() {
+        return false;
+    }
 }
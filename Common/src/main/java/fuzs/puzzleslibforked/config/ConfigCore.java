@@ -2,6 +2,8 @@ package fuzs.puzzleslibforked.config;
 
 import fuzs.puzzleslibforked.config.core.AbstractConfigBuilder;
 
+import java.util.Set;
+
 /**
  * config template interface for each config category, can be nested (fields in a subclass can be once again of type {@link ConfigCore})
  */
@@ -23,4 +25,15 @@ public interface ConfigCore {
     default void afterConfigReload() {
 
     }
+
+    /**
+     * transform config options to proper type after reload, only receives paths of values that have actually changed,
+     * so expensive work can be skipped when none of the values it depends on have changed
+     * <p>when the config is loaded initially (also when loading a world for server configs) all paths are included
+     *
+     * @param changedPaths full paths of all changed config values, categories are separated by dots
+     */
+    default void afterConfigReload(Set<String> changedPaths) {
+        this.afterConfigReload();
+    }
 }
\ No newline at end of file
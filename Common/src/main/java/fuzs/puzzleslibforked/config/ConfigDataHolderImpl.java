@@ -1,11 +1,18 @@
 package fuzs.puzzleslibforked.config;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.mojang.datafixers.util.Either;
 import com.mojang.datafixers.util.Unit;
+import fuzs.puzzleslibforked.config.core.AbstractConfigValue;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
@@ -16,9 +23,9 @@ import java.util.function.UnaryOperator;
  */
 public abstract class ConfigDataHolderImpl<T extends ConfigCore> implements ConfigDataHolder<T>, ValueCallback {
     /**
-     * the stored config
+     * the stored config, replaced with a freshly built instance on every reload when {@link #atomicReload} is enabled
      */
-    protected final T config;
+    protected volatile T config;
     /**
      * supplier for default config if needed at some point
      */
@@ -33,18 +40,37 @@ public abstract class ConfigDataHolderImpl<T extends ConfigCore> implements Conf
      */
     protected UnaryOperator<String> fileName;
     /**
-     * custom syncs to perform when config reloads
+     * custom syncs to perform when config reloads, receive paths of all config values that have changed
      */
-    protected final List<Runnable> additionalCallbacks = Lists.newArrayList();
+    protected final List<Consumer<Set<String>>> additionalCallbacks = Lists.newArrayList();
     /**
      * list of config value callbacks created from annotated configs for syncing changes
      * this is replaced with an immutable list after config setup is done
      */
-    protected List<Runnable> configValueCallbacks = Lists.newArrayList();
+    protected List<ConfigValueCallback<T>> configValueCallbacks = Lists.newArrayList();
+    /**
+     * {@link ConfigCore#afterConfigReload(Set)} calls on a given config instance, used for building fresh instances on atomic reloads
+     */
+    protected final List<BiConsumer<T, Set<String>>> instanceReloadCallbacks = Lists.newArrayList();
+    /**
+     * values from the last time this config has been loaded, same order as {@link #configValueCallbacks}, used for only applying values that have changed
+     */
+    @Nullable
+    private Object[] lastValues;
+    /**
+     * build a new config instance on every reload and publish it with a single write instead of updating the existing instance in place,
+     * so readers never observe a partially applied reload
+     */
+    private boolean atomicReload;
     /**
      * loading stage for config, useful to determine if it has properly been loaded when used (for finding bugs of early access)
      */
-    protected boolean available;
+    protected boolean loaded;
+    /**
+     * cached result of {@link #findErrorMessage()}, updated via {@link #updateAvailability()} whenever the config is loaded or unloaded,
+     * so that {@link #config()} is just a single read
+     */
+    private volatile boolean available;
 
     /**
      * @param config config factory
@@ -56,7 +82,7 @@ public abstract class ConfigDataHolderImpl<T extends ConfigCore> implements Conf
 
     @Override
     public T config() {
-        return this.isAvailable() ? this.config : this.getOrCreateDefaultConfig();
+        return this.available ? this.config : this.getOrCreateDefaultConfig();
     }
 
     /**
@@ -75,17 +101,107 @@ public abstract class ConfigDataHolderImpl<T extends ConfigCore> implements Conf
 
     @Override
     public boolean isAvailable() {
-        return this.findErrorMessage().left().isPresent();
+        return this.available;
+    }
+
+    /**
+     * checks {@link #findErrorMessage()} again and stores the result, to be called whenever the state of the config changes
+     */
+    protected void updateAvailability() {
+        this.available = this.findErrorMessage().left().isPresent();
     }
 
     @Override
     public void accept(Runnable callback) {
-        this.additionalCallbacks.add(callback);
+        this.additionalCallbacks.add(changedPaths -> callback.run());
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public <V> void accept(Supplier<V> entry, Consumer<V> save) {
-        this.configValueCallbacks.add(() -> save.accept(entry.get()));
+        if (this.atomicReload) throw new IllegalStateException("Config values registered via ConfigCore#addToBuilder are not supported with atomic reloads");
+        String path = entry instanceof AbstractConfigValue<?> configValue ? String.join(".", configValue.getPath()) : null;
+        this.configValueCallbacks.add(new ConfigValueCallback<>(entry, path, (T config, Object value) -> save.accept((V) value)));
+    }
+
+    /**
+     * adds a callback for a config value which is able to apply the value to any config instance, not just the one stored initially
+     *
+     * @param entry source config value object
+     * @param save action for setting the value on a config instance
+     * @param <V> type for value
+     */
+    @ApiStatus.Internal
+    @SuppressWarnings("unchecked")
+    public <V> void acceptInstanceValue(AbstractConfigValue<V> entry, BiConsumer<Object, V> save) {
+        this.configValueCallbacks.add(new ConfigValueCallback<>(entry, String.join(".", entry.getPath()), (T config, Object value) -> save.accept(config, (V) value)));
+    }
+
+    /**
+     * adds a reload callback which is able to run on any config instance, not just the one stored initially
+     *
+     * @param callback action to run on a config instance after all values have been applied, receives paths of all config values that have changed
+     */
+    @ApiStatus.Internal
+    public void acceptInstanceReload(BiConsumer<Object, Set<String>> callback) {
+        if (this.atomicReload) {
+            this.instanceReloadCallbacks.add(callback::accept);
+        } else {
+            this.additionalCallbacks.add(changedPaths -> callback.accept(this.config, changedPaths));
+        }
+    }
+
+    /**
+     * applies config values and runs reload callbacks,
+     * with atomic reloads a fresh config instance is built and set up completely before it replaces the current one
+     * <p>static config fields are shared between instances and will still be updated in place
+     * <p>on reloads only values that have changed are applied, nothing at all happens when no value has changed
+     *
+     * @param reloading is the config being reloaded, as opposed to being loaded for the first time (e.g. when a world is loaded)
+     */
+    protected synchronized void applyConfigValues(boolean reloading) {
+        Object[] lastValues = this.lastValues;
+        // a full load reports all paths as changed, as callbacks might depend on more than just config values, like registries
+        boolean fullLoad = !reloading || lastValues == null;
+        Object[] values = new Object[this.configValueCallbacks.size()];
+        boolean[] changed = new boolean[values.length];
+        Set<String> changedPaths = Sets.newLinkedHashSet();
+        boolean anyChanged = fullLoad;
+        for (int i = 0; i < values.length; i++) {
+            ConfigValueCallback<T> callback = this.configValueCallbacks.get(i);
+            values[i] = callback.entry().get();
+            changed[i] = lastValues == null || !Objects.equals(lastValues[i], values[i]);
+            if (fullLoad || changed[i]) {
+                anyChanged = true;
+                if (callback.path() != null) changedPaths.add(callback.path());
+            }
+        }
+        if (!anyChanged) return;
+        this.lastValues = values;
+        Set<String> paths = Collections.unmodifiableSet(changedPaths);
+        if (this.atomicReload) {
+            T config = this.defaultConfigSupplier.get();
+            for (int i = 0; i < values.length; i++) {
+                this.configValueCallbacks.get(i).save().accept(config, values[i]);
+            }
+            this.instanceReloadCallbacks.forEach(callback -> callback.accept(config, paths));
+            this.config = config;
+        } else {
+            for (int i = 0; i < values.length; i++) {
+                if (changed[i]) this.configValueCallbacks.get(i).save().accept(this.config, values[i]);
+            }
+        }
+        this.additionalCallbacks.forEach(callback -> callback.accept(paths));
+    }
+
+    /**
+     * enable building a new config instance on every reload instead of updating the existing instance in place, must be set before the config is registered
+     *
+     * @param atomicReload use atomic reloads
+     */
+    public void setAtomicReload(boolean atomicReload) {
+        if (!this.configValueCallbacks.isEmpty()) throw new IllegalStateException("Config has already been registered");
+        this.atomicReload = atomicReload;
     }
 
     /**
@@ -108,4 +224,16 @@ public abstract class ConfigDataHolderImpl<T extends ConfigCore> implements Conf
      * @return the error message if present
      */
     protected abstract Either<Unit, String> findErrorMessage();
+
+    /**
+     * a single config value together with the action for applying it to a config instance
+     *
+     * @param entry source config value object
+     * @param path full path of this value in the config, separated by dots, null when unknown
+     * @param save action for setting the value on a config instance
+     * @param <T> config type
+     */
+    protected record ConfigValueCallback<T>(Supplier<?> entry, @Nullable String path, BiConsumer<T, Object> save) {
+
+    }
 }
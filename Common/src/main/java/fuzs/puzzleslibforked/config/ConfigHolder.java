@@ -109,5 +109,19 @@ public interface ConfigHolder {
          * @return          the builder we are working with
          */
         <T extends ConfigCore> Builder setFileName(Class<T> clazz, UnaryOperator<String> fileName);
+
+        /**
+         * instead of updating the existing config instance in place on every reload, build a completely new instance
+         * and replace the old one once all values have been applied, so that readers on other threads never see a partially applied reload
+         *
+         * <p>only supported for values defined via {@link fuzs.puzzleslibforked.config.annotation.Config} annotations,
+         * do not keep references to the config instance around as it changes on every reload
+         *
+         * @param clazz         config main class
+         * @param atomicReload  use atomic reloads
+         * @param <T>           config type
+         * @return              the builder we are working with
+         */
+        <T extends ConfigCore> Builder setAtomicReload(Class<T> clazz, boolean atomicReload);
     }
 }
@@ -1,27 +1,36 @@
 package fuzs.puzzleslibforked.config.annotation;
 
 import com.google.common.base.CaseFormat;
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Lists;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.ObjectArrays;
+import com.google.common.collect.*;
 import fuzs.puzzleslibforked.config.ConfigCore;
 import fuzs.puzzleslibforked.config.ConfigDataHolderImpl;
 import fuzs.puzzleslibforked.config.core.AbstractConfigBuilder;
+import fuzs.puzzleslibforked.config.core.AbstractConfigValue;
+import fuzs.puzzleslibforked.impl.PuzzlesLib;
 import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.*;
-import java.util.function.Supplier;
+import java.util.function.Function;
 
 /**
  * build config values from given class, values are marked via {@link Config} annotation
  * large based upon <a href="https://github.com/VazkiiMods/Quark">Quark's</a> <code>vazkii.quark.base.module.config.ConfigObjectSerializer</code> class
+ * <p>uses a {@link ConfigBinder} generated at compile time when one is present for a class, otherwise falls back to reflection
  */
 public class AnnotatedConfigBuilder {
+    /**
+     * suffix for generated {@link ConfigBinder} classes
+     */
+    private static final String BINDER_SUFFIX = "_ConfigBinder";
+    /**
+     * generated binders by config class, empty when there is none and reflection needs to be used
+     */
+    private static final Map<Class<?>, Optional<ConfigBinder<?>>> BINDERS = Maps.newConcurrentMap();
 
     /**
      * @param builder forge builder for creating forge config values, setting comments, etc.
@@ -49,9 +58,76 @@ public class AnnotatedConfigBuilder {
      * @param <T> <code>instance</code> type
      */
     public static <T extends ConfigCore> void serialize(final AbstractConfigBuilder builder, final ConfigDataHolderImpl<?> context, Class<? extends T> target, @Nullable T instance) {
+        serialize(builder, context, target, instance, instance != null ? Function.identity() : config -> null);
+    }
+
+    /**
+     * @param builder forge builder for creating forge config values, setting comments, etc.
+     * @param context callback
+     * @param target target class
+     * @param instance object instance, null when static
+     * @param owner finds the object corresponding to <code>instance</code> in any root config instance, so values can be applied to fresh instances
+     * @param <T> <code>instance</code> type
+     */
+    @ApiStatus.Internal
+    public static <T extends ConfigCore> void serialize(final AbstractConfigBuilder builder, final ConfigDataHolderImpl<?> context, Class<? extends T> target, @Nullable T instance, Function<Object, Object> owner) {
         // add config reload callback first to make sure it's called when initially loading configs
         // (since on some systems reload event doesn't trigger during startup, resulting in configs only being loaded here)
-        if (instance != null) context.accept(instance::afterConfigReload);
+        if (instance != null) context.acceptInstanceReload((config, changedPaths) -> ((ConfigCore) owner.apply(config)).afterConfigReload(changedPaths));
+        ConfigBinder<T> binder = findBinder(target);
+        if (binder != null) {
+            binder.bind(builder, context, instance, owner);
+        } else {
+            serializeFields(builder, context, target, instance, owner);
+        }
+        // legacy method, kept for now for types unsupported by annotation system
+        // not available when constructing static config classes
+        if (instance != null) instance.addToBuilder(builder, context);
+    }
+
+    /**
+     * finds the generated binder for a config class
+     *
+     * @param target    config class
+     * @param <T>       config type
+     * @return          the binder, null when none has been generated for <code>target</code>
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private static <T extends ConfigCore> ConfigBinder<T> findBinder(Class<? extends T> target) {
+        return (ConfigBinder<T>) BINDERS.computeIfAbsent(target, AnnotatedConfigBuilder::loadBinder).orElse(null);
+    }
+
+    /**
+     * @param target    config class
+     * @return          new instance of the generated binder for <code>target</code> if there is one
+     */
+    private static Optional<ConfigBinder<?>> loadBinder(Class<?> target) {
+        String name = target.getName();
+        int packageEnd = name.lastIndexOf('.') + 1;
+        String binderName = name.substring(0, packageEnd) + name.substring(packageEnd).replace('$', '_') + BINDER_SUFFIX;
+        try {
+            Class<?> clazz = Class.forName(binderName, true, target.getClassLoader());
+            return Optional.of((ConfigBinder<?>) clazz.getDeclaredConstructor().newInstance());
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            PuzzlesLib.LOGGER.warn("Failed to create config binder for {}, using reflection instead", target.getName(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * reflective fallback for classes without a generated {@link ConfigBinder}
+     *
+     * @param builder forge builder for creating forge config values, setting comments, etc.
+     * @param context callback
+     * @param target target class
+     * @param instance object instance, null when static
+     * @param owner finds the object corresponding to <code>instance</code> in any root config instance
+     * @param <T> <code>instance</code> type
+     */
+    private static <T extends ConfigCore> void serializeFields(final AbstractConfigBuilder builder, final ConfigDataHolderImpl<?> context, Class<? extends T> target, @Nullable T instance, Function<Object, Object> owner) {
         // we support defining config values in categories that don't actually exist in dedicated classes by setting Config::category
         // those categories will be created here instead of inside #buildConfig, so they don't support their own category comments
         Map<List<String>, Collection<Field>> pathToFields = setupFields(target);
@@ -66,13 +142,10 @@ public class AnnotatedConfigBuilder {
                 field.setAccessible(true);
                 final boolean isStatic = Modifier.isStatic(field.getModifiers());
                 if (!isStatic) Objects.requireNonNull(instance, "Null instance for non-static field");
-                buildConfig(builder, context, isStatic ? null : instance, field, field.getDeclaredAnnotation(Config.class));
+                buildConfig(builder, context, isStatic ? null : instance, isStatic ? config -> null : owner, field, field.getDeclaredAnnotation(Config.class));
             }
             if (!path.isEmpty()) builder.pop(path.size());
         }
-        // legacy method, kept for now for types unsupported by annotation system
-        // not available when constructing static config classes
-        if (instance != null) instance.addToBuilder(builder, context);
     }
 
     /**
@@ -111,11 +184,12 @@ public class AnnotatedConfigBuilder {
      * @param builder forge builder for creating forge config values, setting comments, etc.
      * @param context callback
      * @param instance object instance, null when static
+     * @param owner finds the object corresponding to <code>instance</code> in any root config instance
      * @param field field to save to
      * @param annotation config annotation for config value data
      */
     @SuppressWarnings({"rawtypes", "unchecked"})
-    private static void buildConfig(final AbstractConfigBuilder builder, final ConfigDataHolderImpl<?> context, @Nullable Object instance, Field field, Config annotation) {
+    private static void buildConfig(final AbstractConfigBuilder builder, final ConfigDataHolderImpl<?> context, @Nullable Object instance, Function<Object, Object> owner, Field field, Config annotation) {
         // get the name from the config, often this is left blank, so instead we create it from the field's name with an underscore format
         String name = annotation.name();
         if (StringUtils.isBlank(name)) {
@@ -124,12 +198,7 @@ public class AnnotatedConfigBuilder {
 
         // get the value from this field, it'll be used as the default value for the config value
         Class<?> type = field.getType();
-        Object defaultValue;
-        try {
-            defaultValue = field.get(instance);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        Object defaultValue = getFieldValue(field, instance);
 
         // add a description if one is present
         final String[] description = annotation.description();
@@ -137,7 +206,7 @@ public class AnnotatedConfigBuilder {
 
         if (ConfigCore.class.isAssignableFrom(type)) {
             builder.push(name);
-            serialize(builder, context, (Class<? extends ConfigCore>) type, (ConfigCore) defaultValue);
+            serialize(builder, context, (Class<? extends ConfigCore>) type, (ConfigCore) defaultValue, config -> getFieldValue(field, owner.apply(config)));
             builder.pop();
             return;
         }
@@ -150,7 +219,7 @@ public class AnnotatedConfigBuilder {
         if (annotation.worldRestart()) builder.worldRestart();
 
         if (type == boolean.class) {
-            addCallback(context, builder.define(name, (boolean) defaultValue), field, instance);
+            addCallback(context, builder.define(name, (boolean) defaultValue), field, owner);
         } else if (type == int.class) {
             int min = Integer.MIN_VALUE;
             int max = Integer.MAX_VALUE;
@@ -159,7 +228,7 @@ public class AnnotatedConfigBuilder {
                 min = intRange.min();
                 max = intRange.max();
             }
-            addCallback(context, builder.defineInRange(name, (int) defaultValue, min, max), field, instance);
+            addCallback(context, builder.defineInRange(name, (int) defaultValue, min, max), field, owner);
         } else if (type == long.class) {
             long min = Long.MIN_VALUE;
             long max = Long.MAX_VALUE;
@@ -168,7 +237,7 @@ public class AnnotatedConfigBuilder {
                 min = longRange.min();
                 max = longRange.max();
             }
-            addCallback(context, builder.defineInRange(name, (long) defaultValue, min, max), field, instance);
+            addCallback(context, builder.defineInRange(name, (long) defaultValue, min, max), field, owner);
         } else if (type == double.class) {
             double min = Double.MIN_VALUE;
             double max = Double.MAX_VALUE;
@@ -177,31 +246,31 @@ public class AnnotatedConfigBuilder {
                 min = doubleRange.min();
                 max = doubleRange.max();
             }
-            addCallback(context, builder.defineInRange(name, (double) defaultValue, min, max), field, instance);
+            addCallback(context, builder.defineInRange(name, (double) defaultValue, min, max), field, owner);
         } else if (type == String.class) {
             Config.AllowedValues allowedValues = field.getDeclaredAnnotation(Config.AllowedValues.class);
             if (allowedValues != null && allowedValues.values().length != 0) {
                 builder.comment(ObjectArrays.concat(description, String.format("Allowed Values: %s", String.join(", ", allowedValues.values()))));
-                addCallback(context, builder.define(name, (String) defaultValue, o -> testAllowedValues(allowedValues.values(), o)), field, instance);
+                addCallback(context, builder.define(name, (String) defaultValue, o -> testAllowedValues(allowedValues.values(), o)), field, owner);
             } else {
-                addCallback(context, builder.define(name, (String) defaultValue), field, instance);
+                addCallback(context, builder.define(name, (String) defaultValue), field, owner);
             }
         } else if (type.isEnum()) {
             Config.AllowedValues allowedValues = field.getDeclaredAnnotation(Config.AllowedValues.class);
             if (allowedValues != null && allowedValues.values().length != 0) {
                 // allowed values line handled by forge
-                addCallback(context, builder.defineEnum(name, (Enum) defaultValue, o -> testAllowedValues(allowedValues.values(), o)), field, instance);
+                addCallback(context, builder.defineEnum(name, (Enum) defaultValue, o -> testAllowedValues(allowedValues.values(), o)), field, owner);
             } else {
-                addCallback(context, builder.defineEnum(name, (Enum) defaultValue), field, instance);
+                addCallback(context, builder.defineEnum(name, (Enum) defaultValue), field, owner);
             }
         } else if (type == List.class) {
             // currently, only supports a predicate for string and enum lists, might also want to add range check for number values
             Config.AllowedValues allowedValues = field.getDeclaredAnnotation(Config.AllowedValues.class);
             if (allowedValues != null && allowedValues.values().length != 0) {
                 builder.comment(ObjectArrays.concat(description, String.format("Allowed Values: %s", String.join(", ", allowedValues.values()))));
-                addCallback(context, builder.defineList(name, (List<?>) defaultValue, o -> testAllowedValues(allowedValues.values(), o)), field, instance);
+                addCallback(context, builder.defineList(name, (List<?>) defaultValue, o -> testAllowedValues(allowedValues.values(), o)), field, owner);
             } else {
-                addCallback(context, builder.defineList(name, (List<?>) defaultValue, o -> true), field, instance);
+                addCallback(context, builder.defineList(name, (List<?>) defaultValue, o -> true), field, owner);
             }
         } else {
             throw new IllegalArgumentException(String.format("Unsupported config value type: %s", type));
@@ -213,7 +282,8 @@ public class AnnotatedConfigBuilder {
      * @param o object to test
      * @return does <code>allowedValues</code> contain <code>o</code> tested by comparing strings
      */
-    private static boolean testAllowedValues(String[] allowedValues, @Nullable Object o) {
+    @ApiStatus.Internal
+    public static boolean testAllowedValues(String[] allowedValues, @Nullable Object o) {
         if (o != null) {
             String value = o instanceof Enum<?> ? ((Enum<?>) o).name() : o.toString();
             for (String allowedValue : allowedValues) {
@@ -225,16 +295,29 @@ public class AnnotatedConfigBuilder {
         return false;
     }
 
+    /**
+     * @param field field to get value from
+     * @param instance object instance, null when static
+     * @return value of <code>field</code>
+     */
+    private static Object getFieldValue(Field field, @Nullable Object instance) {
+        try {
+            return field.get(instance);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * @param context callback
      * @param configValue forge config value
      * @param field field to save to
-     * @param instance object instance, null when static
+     * @param owner finds the object instance to save to in a root config instance, returns null when static
      */
-    private static void addCallback(ConfigDataHolderImpl<?> context, Supplier<?> configValue, Field field, @Nullable Object instance) {
-        context.accept(configValue, v -> {
+    private static void addCallback(ConfigDataHolderImpl<?> context, AbstractConfigValue<?> configValue, Field field, Function<Object, Object> owner) {
+        context.acceptInstanceValue(configValue, (config, value) -> {
             try {
-                field.set(instance, configValue.get());
+                field.set(owner.apply(config), value);
             } catch(IllegalAccessException e) {
                 throw new RuntimeException(e);
             }
@@ -0,0 +1,29 @@
+package fuzs.puzzleslibforked.config.annotation;
+
+import fuzs.puzzleslibforked.config.ConfigCore;
+import fuzs.puzzleslibforked.config.ConfigDataHolderImpl;
+import fuzs.puzzleslibforked.config.core.AbstractConfigBuilder;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Function;
+
+/**
+ * defines config values for all fields annotated with {@link Config} in a class without using reflection
+ * <p>implementations are generated at compile time by the annotation processor from the <code>Processor</code> project,
+ * they are named after the config class with <code>_ConfigBinder</code> appended (nested classes are separated by underscores),
+ * {@link AnnotatedConfigBuilder} falls back to reflection when no binder is present for a class
+ *
+ * @param <T> config type
+ */
+public interface ConfigBinder<T extends ConfigCore> {
+
+    /**
+     * defines config values on the builder and registers callbacks for applying them
+     *
+     * @param builder forge builder for creating forge config values, setting comments, etc.
+     * @param context callback
+     * @param instance object instance, null when static
+     * @param owner finds the object corresponding to <code>instance</code> in any root config instance, so values can be applied to fresh instances
+     */
+    void bind(AbstractConfigBuilder builder, ConfigDataHolderImpl<?> context, @Nullable T instance, Function<Object, Object> owner);
+}
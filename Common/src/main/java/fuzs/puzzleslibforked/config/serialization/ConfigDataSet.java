@@ -24,6 +24,8 @@ public interface ConfigDataSet<T> {
     String CONFIG_DESCRIPTION = "Format for every entry is \"<namespace>:<path>\". Tags are supported, must be in the format of \"#<namespace>:<path>\". Namespace may be omitted to use \"minecraft\" by default. Path may use asterisk as wildcard parameter via pattern matching, e.g. \"minecraft:*shulker_box\" to match all shulker boxes no matter of color.";
 
     /**
+     * entries from tags are updated after tags have been reloaded, so the map should be retrieved again every time instead of being stored
+     *
      * @return the dissolved entry map backing this config data set (values are mostly an empty array, so this is more like a set actually)
      */
     Map<T, Object[]> toMap();
@@ -47,8 +49,48 @@ public interface ConfigDataSet<T> {
      * @throws NullPointerException if <code>entry</code> is not present for this set
      */
     default Object[] get(T entry) {
-        if (!this.contains(entry)) throw new NullPointerException("no data found for %s".formatted(entry));
-        return this.toMap().get(entry);
+        Object[] data = this.toMap().get(entry);
+        if (data == null) throw new NullPointerException("no data found for %s".formatted(entry));
+        return data;
+    }
+
+    /**
+     * queries int data for a given value from this set without boxing
+     *
+     * @param entry entry to query data for
+     * @param index index of the data value, same as for the array returned from {@link #get}, must be of type {@link Integer}
+     * @return int data value
+     *
+     * @throws NullPointerException if <code>entry</code> is not present for this set
+     */
+    default int getInt(T entry, int index) {
+        return (Integer) this.get(entry)[index];
+    }
+
+    /**
+     * queries double data for a given value from this set without boxing
+     *
+     * @param entry entry to query data for
+     * @param index index of the data value, same as for the array returned from {@link #get}, must be of type {@link Double}
+     * @return double data value
+     *
+     * @throws NullPointerException if <code>entry</code> is not present for this set
+     */
+    default double getDouble(T entry, int index) {
+        return (Double) this.get(entry)[index];
+    }
+
+    /**
+     * queries boolean data for a given value from this set without boxing
+     *
+     * @param entry entry to query data for
+     * @param index index of the data value, same as for the array returned from {@link #get}, must be of type {@link Boolean}
+     * @return boolean data value
+     *
+     * @throws NullPointerException if <code>entry</code> is not present for this set
+     */
+    default boolean getBoolean(T entry, int index) {
+        return (Boolean) this.get(entry)[index];
     }
 
     /**
@@ -2,16 +2,18 @@ package fuzs.puzzleslibforked.config.serialization;
 
 import com.google.common.collect.*;
 import fuzs.puzzleslibforked.impl.PuzzlesLib;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import net.minecraft.core.Holder;
 import net.minecraft.core.Registry;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.tags.TagKey;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiPredicate;
-import java.util.function.Consumer;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -25,6 +27,10 @@ public final class ConfigDataSetImpl<T> implements ConfigDataSet<T> {
      * the data types we currently are able to handle
      */
     private static final Set<Class<?>> SUPPORTED_DATA_TYPES = ImmutableSet.of(Boolean.class, Integer.class, Double.class, String.class);
+    /**
+     * incremented every time tags are bound to registries, entries dissolved from tags are rebuilt when this changes
+     */
+    private static final AtomicInteger TAG_GENERATION = new AtomicInteger();
 
     /**
      * registry to work with
@@ -39,9 +45,23 @@ public final class ConfigDataSetImpl<T> implements ConfigDataSet<T> {
      */
     private final BiPredicate<Integer, Object> filter;
     /**
-     * dissolved {@link #values}
+     * types of additional data attached to every entry
      */
-    private Map<T, Object[]> dissolved;
+    private final Class<?>[] types;
+    /**
+     * does {@link #values} contain any {@link TagEntryHolder}, otherwise tag reloads can be ignored
+     */
+    private final boolean hasTagEntries;
+    /**
+     * dissolved {@link RegistryEntryHolder}s, these never change, so they are only dissolved once
+     */
+    @Nullable
+    private volatile Map<T, Object[]> registryEntries;
+    /**
+     * dissolved {@link #values}, replaced as a whole when tags change
+     */
+    @Nullable
+    private volatile Dissolved<T> dissolved;
 
     /**
      * @param registry      registry entries the to be created collections contain
@@ -52,52 +72,108 @@ public final class ConfigDataSetImpl<T> implements ConfigDataSet<T> {
     ConfigDataSetImpl(Registry<T> registry, List<String> values, BiPredicate<Integer, Object> filter, Class<?>... types) {
         this.activeRegistry = registry;
         this.filter = filter;
+        this.types = types;
         for (Class<?> clazz : types) {
             if (!SUPPORTED_DATA_TYPES.contains(clazz)) throw new IllegalArgumentException("data type of clazz %s is not supported".formatted(clazz));
         }
         for (String value : values) {
             this.deserialize(value, types).ifPresent(this.values::add);
         }
+        this.hasTagEntries = this.values.stream().anyMatch(TagEntryHolder.class::isInstance);
+    }
+
+    /**
+     * called whenever tags have been bound to registries, invalidates entries dissolved from tags in all data sets
+     */
+    @ApiStatus.Internal
+    public static void onTagsUpdated() {
+        TAG_GENERATION.incrementAndGet();
+    }
+
+    /**
+     * @return current tag generation, changes every time tags are bound to registries
+     */
+    static int getTagGeneration() {
+        return TAG_GENERATION.get();
     }
 
     @Override
     public Map<T, Object[]> toMap() {
-        this.dissolve();
-        return this.dissolved;
+        return this.dissolve().map();
+    }
+
+    @Override
+    public int getInt(T entry, int index) {
+        Dissolved<T> dissolved = this.dissolve();
+        return dissolved.getColumn(index, int[].class)[dissolved.getRow(entry)];
+    }
+
+    @Override
+    public double getDouble(T entry, int index) {
+        Dissolved<T> dissolved = this.dissolve();
+        return dissolved.getColumn(index, double[].class)[dissolved.getRow(entry)];
+    }
+
+    @Override
+    public boolean getBoolean(T entry, int index) {
+        Dissolved<T> dissolved = this.dissolve();
+        return dissolved.getColumn(index, boolean[].class)[dissolved.getRow(entry)];
     }
 
     /**
      * dissolve {@link #values}, always call before retrieving any data from this set
+     * <p>entries from tags are dissolved again lazily after tags have been reloaded, individual registry entries are only ever dissolved once
+     *
+     * @return the dissolved values
      */
-    private void dissolve() {
-        if (this.dissolved == null) {
-            ImmutableMap.Builder<T, Object[]> builder = ImmutableMap.builder();
-            // split this to ensure data values from individual entries take precedence over tag entries
-            for (EntryHolder<?, T> holder : this.values) {
-                if (holder instanceof ConfigDataSetImpl.TagEntryHolder<?>) {
-                    this.dissolveHolder(holder, builder::putAll);
-                }
+    private Dissolved<T> dissolve() {
+        Dissolved<T> dissolved = this.dissolved;
+        int tagGeneration = TAG_GENERATION.get();
+        if (dissolved == null || this.hasTagEntries && dissolved.tagGeneration() != tagGeneration) {
+            Map<T, Object[]> registryEntries = this.registryEntries;
+            if (registryEntries == null) {
+                registryEntries = Maps.newLinkedHashMap();
+                this.dissolveHolders(RegistryEntryHolder.class, registryEntries);
+                this.registryEntries = registryEntries = ImmutableMap.copyOf(registryEntries);
             }
-            for (EntryHolder<?, T> holder : this.values) {
-                if (holder instanceof ConfigDataSetImpl.RegistryEntryHolder<?>) {
-                    this.dissolveHolder(holder, builder::putAll);
-                }
+            // later entries replace earlier ones
+            Map<T, Object[]> entries = Maps.newLinkedHashMap();
+            // split this to ensure data values from individual entries take precedence over tag entries
+            this.dissolveHolders(TagEntryHolder.class, entries);
+            entries.putAll(registryEntries);
+            // published as a whole, so readers always see a consistent state, concurrent rebuilds produce the same result
+            this.dissolved = dissolved = Dissolved.of(ImmutableMap.copyOf(entries), this.types, tagGeneration);
+        }
+        return dissolved;
+    }
+
+    /**
+     * dissolves all holders of a type in order, so later holders replace values of earlier ones
+     * <p>everything runs on the calling thread, as dissolving may happen during world loading or from the render and tick threads,
+     * pattern matching is cheap enough thanks to {@link ResourceLocationIndex}
+     *
+     * @param holderType type of {@link EntryHolder} to dissolve
+     * @param entries map to add values to
+     */
+    private void dissolveHolders(Class<?> holderType, Map<T, Object[]> entries) {
+        for (EntryHolder<?, T> holder : this.values) {
+            if (holderType.isInstance(holder)) {
+                entries.putAll(this.dissolveHolder(holder));
             }
-            this.dissolved = builder.build();
         }
     }
 
     /**
-     * collects all values from a {@link EntryHolder}, checks if they are valid using {@link #filter}, then adds them to the map builder
+     * collects all values from a {@link EntryHolder} and checks if they are valid using {@link #filter}
      *
-     * @param holder dissolve a single {@link EntryHolder}
-     * @param builder immutable map builder to add values to
+     * @param holder a single {@link EntryHolder}
+     * @return dissolved values
      */
-    private void dissolveHolder(EntryHolder<?, T> holder, Consumer<Map<T, Object[]>> builder) {
+    private Map<T, Object[]> dissolveHolder(EntryHolder<?, T> holder) {
         Map<T, Object[]> entries = Maps.newHashMap();
         holder.dissolve(entries);
         entries.keySet().removeIf(e -> !this.filter.test(0, e));
-        builder.accept(entries);
+        return entries;
     }
 
     /**
@@ -235,38 +311,32 @@ public final class ConfigDataSetImpl<T> implements ConfigDataSet<T> {
         }
 
         /**
-         * compile all entries from this holder
+         * looks up entries without a pattern in the registry directly, patterns are matched against the shared {@link ResourceLocationIndex}
          *
-         * @param entries       provided entries to add to
+         * @return              all entries in registry matching this holder
          */
-        public final void dissolve(Map<E, Object[]> entries) {
-            this.findRegistryMatches(this.namespace, this.path).stream().flatMap(this::dissolveValue).forEach(value -> entries.put(value, this.data));
+        private Collection<D> findMatches() {
+            Collection<D> matches = Sets.newHashSet();
+            if (!this.path.contains("*")) {
+                this.toValue(new ResourceLocation(this.namespace, this.path)).ifPresent(matches::add);
+            } else {
+                this.index().forEachMatch(this.namespace, new ResourceLocationIndex.WildcardPattern(this.path), matches::add);
+            }
+            return matches;
         }
 
         /**
-         * retrieve all matching entries from registry, handles pattern matching
+         * compile all entries from this holder
          *
-         * @param namespace         {@link ResourceLocation} namespace
-         * @param path              {@link ResourceLocation} path
-         * @return                  all entries in registry matching <code>namespace</code> and <code>path</code>
+         * @param entries       provided entries to add to
          */
-        private Collection<D> findRegistryMatches(String namespace, String path) {
-            Collection<D> matches = Sets.newHashSet();
-            if (!path.contains("*")) {
-                this.toValue(new ResourceLocation(namespace, path)).ifPresent(matches::add);
-            } else {
-                String regexPath = path.replace("*", "[a-z0-9/._-]*");
-                this.allValues()
-                        .filter(entry -> entry.getKey().getNamespace().equals(namespace))
-                        .filter(entry -> entry.getKey().getPath().matches(regexPath))
-                        .map(Map.Entry::getValue)
-                        .forEach(matches::add);
-            }
+        final void dissolve(Map<E, Object[]> entries) {
+            Collection<D> matches = this.findMatches();
             // test if this is a valid entry first
             if (this.activeRegistry != null && matches.isEmpty()) {
-                PuzzlesLib.LOGGER.warn("Unable to parse entry {}:{}: No matches found in registry {}", namespace, path, this.activeRegistry.key().location());
+                PuzzlesLib.LOGGER.warn("Unable to parse entry {}:{}: No matches found in registry {}", this.namespace, this.path, this.activeRegistry.key().location());
             }
-            return matches;
+            matches.stream().flatMap(this::dissolveValue).forEach(value -> entries.put(value, this.data));
         }
 
         /**
@@ -282,9 +352,9 @@ public final class ConfigDataSetImpl<T> implements ConfigDataSet<T> {
         protected abstract Optional<D> toValue(ResourceLocation identifier);
 
         /**
-         * @return              all registry values for pattern matching
+         * @return              all registry values indexed for pattern matching
          */
-        protected abstract Stream<Map.Entry<ResourceLocation, D>> allValues();
+        protected abstract ResourceLocationIndex<D> index();
     }
 
     /**
@@ -315,8 +385,8 @@ public final class ConfigDataSetImpl<T> implements ConfigDataSet<T> {
         }
 
         @Override
-        protected Stream<Map.Entry<ResourceLocation, E>> allValues() {
-            return this.activeRegistry.entrySet().stream().collect(Collectors.toMap(e -> e.getKey().location(), Map.Entry::getValue)).entrySet().stream();
+        protected ResourceLocationIndex<E> index() {
+            return ResourceLocationIndex.forRegistry(this.activeRegistry);
         }
     }
 
@@ -349,8 +419,89 @@ public final class ConfigDataSetImpl<T> implements ConfigDataSet<T> {
         }
 
         @Override
-        protected Stream<Map.Entry<ResourceLocation, TagKey<E>>> allValues() {
-            return this.activeRegistry.getTagNames().collect(Collectors.toMap(TagKey::location, Function.identity())).entrySet().stream();
+        protected ResourceLocationIndex<TagKey<E>> index() {
+            return ResourceLocationIndex.forTags(this.activeRegistry);
+        }
+    }
+
+    /**
+     * dissolved entries, additionally stores data for primitive types in separate arrays, so they can be retrieved without casting and unboxing
+     *
+     * @param map       all entries with their data
+     * @param rows      row index for every entry in {@link #columns}, compared by identity
+     * @param columns   data arrays by data index, <code>int[]</code>, <code>double[]</code> and <code>boolean[]</code> for primitive types, <code>Object[]</code> otherwise
+     * @param tagGeneration tag generation entries from tags have been dissolved for
+     * @param <T>       registry entry type for stored values
+     */
+    private record Dissolved<T>(Map<T, Object[]> map, Reference2IntMap<T> rows, Object[] columns, int tagGeneration) {
+
+        /**
+         * @param map   all entries with their data
+         * @param types data types
+         * @param tagGeneration tag generation entries from tags have been dissolved for
+         * @param <T>   registry entry type for stored values
+         * @return      dissolved entries with data split into columns
+         */
+        static <T> Dissolved<T> of(Map<T, Object[]> map, Class<?>[] types, int tagGeneration) {
+            Reference2IntMap<T> rows = new Reference2IntOpenHashMap<>(map.size());
+            rows.defaultReturnValue(-1);
+            Object[] columns = new Object[types.length];
+            for (int i = 0; i < types.length; i++) {
+                if (types[i] == Integer.class) {
+                    columns[i] = new int[map.size()];
+                } else if (types[i] == Double.class) {
+                    columns[i] = new double[map.size()];
+                } else if (types[i] == Boolean.class) {
+                    columns[i] = new boolean[map.size()];
+                } else {
+                    columns[i] = new Object[map.size()];
+                }
+            }
+            int row = 0;
+            for (Map.Entry<T, Object[]> entry : map.entrySet()) {
+                rows.put(entry.getKey(), row);
+                Object[] data = entry.getValue();
+                for (int i = 0; i < columns.length; i++) {
+                    if (columns[i] instanceof int[] column) {
+                        column[row] = (Integer) data[i];
+                    } else if (columns[i] instanceof double[] column) {
+                        column[row] = (Double) data[i];
+                    } else if (columns[i] instanceof boolean[] column) {
+                        column[row] = (Boolean) data[i];
+                    } else {
+                        ((Object[]) columns[i])[row] = data[i];
+                    }
+                }
+                row++;
+            }
+            return new Dissolved<>(map, rows, columns, tagGeneration);
+        }
+
+        /**
+         * @param entry     entry to get row for
+         * @return          row index of <code>entry</code> in {@link #columns}
+         *
+         * @throws NullPointerException if <code>entry</code> is not present for this set
+         */
+        int getRow(T entry) {
+            int row = this.rows.getInt(entry);
+            if (row == -1) throw new NullPointerException("no data found for %s".formatted(entry));
+            return row;
+        }
+
+        /**
+         * @param index     data index
+         * @param type      expected array type
+         * @param <A>       array type
+         * @return          data column at <code>index</code>
+         *
+         * @throws IllegalArgumentException if data at <code>index</code> is not of the requested type
+         */
+        <A> A getColumn(int index, Class<A> type) {
+            if (index < 0 || index >= this.columns.length) throw new IllegalArgumentException("data index out of bounds, index was %s, but length is %s".formatted(index, this.columns.length));
+            Object column = this.columns[index];
+            if (column.getClass() != type) throw new IllegalArgumentException("data at index %s is not of type %s".formatted(index, type.getComponentType()));
+            return type.cast(column);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,187 @@
+package fuzs.puzzleslibforked.config.serialization;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * values indexed by the namespace of their {@link ResourceLocation}, used for pattern matching paths in {@link ConfigDataSet}
+ *
+ * @param <D> value type
+ */
+final class ResourceLocationIndex<D> {
+    /**
+     * indices for registry entries, shared between all {@link ConfigDataSet}s
+     * <p>weak keys, so registries are compared by identity
+     */
+    private static final Map<Registry<?>, ResourceLocationIndex<?>> REGISTRY_INDICES = new MapMaker().weakKeys().makeMap();
+    /**
+     * indices for tag names, only valid for the tag generation they have been built for
+     * <p>registry indices are tied to the tag generation as well, as tags are only ever bound once registries are final
+     */
+    private static final Map<Registry<?>, ResourceLocationIndex<?>> TAG_INDICES = new MapMaker().weakKeys().makeMap();
+
+    /**
+     * tag generation this index has been built for
+     */
+    private final int tagGeneration;
+    /**
+     * amount of values in this index, used for detecting registries still changing before tags have been bound for the first time
+     */
+    private final int size;
+    /**
+     * paths and values by namespace
+     */
+    private final Map<String, List<IndexEntry<D>>> entriesByNamespace;
+
+    /**
+     * @param tagGeneration tag generation this index has been built for
+     * @param size amount of values in this index
+     * @param entriesByNamespace paths and values by namespace
+     */
+    private ResourceLocationIndex(int tagGeneration, int size, Map<String, List<IndexEntry<D>>> entriesByNamespace) {
+        this.tagGeneration = tagGeneration;
+        this.size = size;
+        this.entriesByNamespace = entriesByNamespace;
+    }
+
+    /**
+     * finds all values with a path matching <code>pattern</code>
+     *
+     * @param namespace namespace to search in
+     * @param pattern compiled path pattern
+     * @param consumer consumer for matching values
+     */
+    void forEachMatch(String namespace, WildcardPattern pattern, Consumer<D> consumer) {
+        List<IndexEntry<D>> entries = this.entriesByNamespace.get(namespace);
+        if (entries == null) return;
+        for (IndexEntry<D> entry : entries) {
+            if (pattern.matches(entry.path())) {
+                consumer.accept(entry.value());
+            }
+        }
+    }
+
+    /**
+     * gets the index for all entries of a registry, only built again after tags have been bound to registries
+     * <p>until tags have been bound for the first time registries may still be changing, so before that the index is also rebuilt when the size of the registry changes
+     *
+     * @param registry the registry
+     * @param <T> registry entry type
+     * @return index for <code>registry</code>
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ResourceLocationIndex<T> forRegistry(Registry<T> registry) {
+        int tagGeneration = ConfigDataSetImpl.getTagGeneration();
+        ResourceLocationIndex<T> index = (ResourceLocationIndex<T>) REGISTRY_INDICES.get(registry);
+        if (index == null || index.tagGeneration != tagGeneration || tagGeneration == 0 && index.size != registry.keySet().size()) {
+            Builder<T> builder = new Builder<>();
+            for (Map.Entry<ResourceKey<T>, T> entry : registry.entrySet()) {
+                builder.add(entry.getKey().location(), entry.getValue());
+            }
+            index = builder.build(tagGeneration);
+            REGISTRY_INDICES.put(registry, index);
+        }
+        return index;
+    }
+
+    /**
+     * gets the index for all tag names of a registry, only built again after tags have been reloaded
+     *
+     * @param registry the registry
+     * @param <T> registry entry type
+     * @return index for tags in <code>registry</code>
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ResourceLocationIndex<TagKey<T>> forTags(Registry<T> registry) {
+        int tagGeneration = ConfigDataSetImpl.getTagGeneration();
+        ResourceLocationIndex<TagKey<T>> index = (ResourceLocationIndex<TagKey<T>>) TAG_INDICES.get(registry);
+        if (index == null || index.tagGeneration != tagGeneration) {
+            Builder<TagKey<T>> builder = new Builder<>();
+            registry.getTagNames().forEach(tagKey -> builder.add(tagKey.location(), tagKey));
+            index = builder.build(tagGeneration);
+            TAG_INDICES.put(registry, index);
+        }
+        return index;
+    }
+
+    /**
+     * a single value in the index
+     *
+     * @param path path part of {@link ResourceLocation}
+     * @param value the value
+     * @param <D> value type
+     */
+    private record IndexEntry<D>(String path, D value) {
+
+    }
+
+    /**
+     * builder for {@link ResourceLocationIndex}
+     *
+     * @param <D> value type
+     */
+    private static class Builder<D> {
+        private final Map<String, ImmutableList.Builder<IndexEntry<D>>> entriesByNamespace = Maps.newHashMap();
+        private int size;
+
+        void add(ResourceLocation location, D value) {
+            this.size++;
+            this.entriesByNamespace.computeIfAbsent(location.getNamespace(), namespace -> ImmutableList.builder()).add(new IndexEntry<>(location.getPath(), value));
+        }
+
+        ResourceLocationIndex<D> build(int tagGeneration) {
+            ImmutableMap.Builder<String, List<IndexEntry<D>>> builder = ImmutableMap.builder();
+            this.entriesByNamespace.forEach((String namespace, ImmutableList.Builder<IndexEntry<D>> entries) -> builder.put(namespace, entries.build()));
+            return new ResourceLocationIndex<>(tagGeneration, this.size, builder.build());
+        }
+    }
+
+    /**
+     * a precompiled path pattern with '*' as wildcard, matched via prefix, suffix and in order infix checks instead of a regular expression
+     * <p>wildcards used to be translated to <code>[a-z0-9/._-]*</code>, which still holds, as only {@link ResourceLocation} paths are ever matched and those cannot contain any other characters
+     * <p>other than with the regular expression, all characters besides '*' are matched literally now, so '.' no longer matches any character
+     */
+    static final class WildcardPattern {
+        /**
+         * literal parts between wildcards, there is always at least one wildcard, so at least two segments
+         */
+        private final String[] segments;
+
+        /**
+         * @param pattern pattern containing at least one '*'
+         */
+        WildcardPattern(String pattern) {
+            this.segments = pattern.split("\\*", -1);
+        }
+
+        /**
+         * @param path path to test
+         * @return does <code>path</code> match this pattern
+         */
+        boolean matches(String path) {
+            String prefix = this.segments[0];
+            String suffix = this.segments[this.segments.length - 1];
+            if (!path.startsWith(prefix) || !path.endsWith(suffix)) return false;
+            int start = prefix.length();
+            int end = path.length() - suffix.length();
+            if (end < start) return false;
+            for (int i = 1; i < this.segments.length - 1; i++) {
+                String segment = this.segments[i];
+                int index = path.indexOf(segment, start);
+                if (index == -1 || index + segment.length() > end) return false;
+                start = index + segment.length();
+            }
+            return true;
+        }
+    }
+}
@@ -2,10 +2,14 @@ package fuzs.puzzleslibforked.core;
 
 import fuzs.puzzleslibforked.util.PuzzlesUtil;
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.MenuProvider;
+import net.minecraft.world.entity.Entity;
 
+import java.util.Collection;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * useful methods for gameplay related things that require mod loader specific abstractions
@@ -34,4 +38,35 @@ public interface CommonAbstractions {
      * @param screenOpeningDataWriter additional data added via {@link FriendlyByteBuf}
      */
     void openMenu(ServerPlayer player, MenuProvider menuProvider, BiConsumer<ServerPlayer, FriendlyByteBuf> screenOpeningDataWriter);
+
+    /**
+     * registers a callback that runs at the end of every server tick, works for dedicated and integrated servers alike
+     *
+     * @param callback action to run, receives the ticking server
+     */
+    void registerEndServerTick(Consumer<MinecraftServer> callback);
+
+    /**
+     * registers a callback that runs whenever tags have been bound to registries,
+     * that is on the server when starting and after reloading data packs, and on the client after receiving tags from the server
+     *
+     * @param callback action to run
+     */
+    void registerTagsUpdated(Runnable callback);
+
+    /**
+     * registers a callback that runs when a player joins the server, before the player has been added to a level,
+     * so packets sent from here arrive ahead of any entity data for that player
+     *
+     * @param callback action to run, receives the joining player
+     */
+    void registerPlayerJoin(Consumer<ServerPlayer> callback);
+
+    /**
+     * all players receiving packets sent via {@link net.minecraft.server.level.ServerChunkCache#broadcast}
+     *
+     * @param entity the tracked entity
+     * @return players tracking <code>entity</code>, does not include <code>entity</code> itself
+     */
+    Collection<ServerPlayer> getTrackingPlayers(Entity entity);
 }
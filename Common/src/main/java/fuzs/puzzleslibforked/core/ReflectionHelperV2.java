@@ -5,10 +5,15 @@ import fuzs.puzzleslibforked.impl.PuzzlesLib;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -20,17 +25,29 @@ import java.util.StringJoiner;
 @SuppressWarnings("unchecked")
 public final class ReflectionHelperV2 {
     /**
-     * cache for all fields found in {@link #findField}
+     * cache for all fields found in {@link #findField}, empty when the field could not be found
      */
-    private static final Map<String, Field> FIELDS_CACHE = Maps.newIdentityHashMap();
+    private static final Map<MemberKey, Optional<Field>> FIELDS_CACHE = Maps.newConcurrentMap();
     /**
-     * cache for all methods found in {@link #findMethod}
+     * cache for all methods found in {@link #findMethod}, empty when the method could not be found
      */
-    private static final Map<String, Method> METHODS_CACHE = Maps.newIdentityHashMap();
+    private static final Map<MemberKey, Optional<Method>> METHODS_CACHE = Maps.newConcurrentMap();
     /**
-     * cache for all constructors found in {@link #findConstructor}
+     * cache for all constructors found in {@link #findConstructor}, empty when the constructor could not be found
      */
-    private static final Map<String, Constructor<?>> CONSTRUCTORS_CACHE = Maps.newIdentityHashMap();
+    private static final Map<MemberKey, Optional<Constructor<?>>> CONSTRUCTORS_CACHE = Maps.newConcurrentMap();
+    /**
+     * cache for all accessors created in {@link #findFieldAccessor}
+     */
+    private static final Map<MemberKey, Optional<FieldAccessor<?>>> FIELD_ACCESSORS_CACHE = Maps.newConcurrentMap();
+    /**
+     * cache for all invokers created in {@link #findMethodInvoker}
+     */
+    private static final Map<MemberKey, Optional<MethodInvoker<?>>> METHOD_INVOKERS_CACHE = Maps.newConcurrentMap();
+    /**
+     * cache for all invokers created in {@link #findConstructorInvoker}
+     */
+    private static final Map<MemberKey, Optional<MethodInvoker<?>>> CONSTRUCTOR_INVOKERS_CACHE = Maps.newConcurrentMap();
 
     /**
      * @param clazz clazz to get field from
@@ -52,20 +69,20 @@ public final class ReflectionHelperV2 {
     public static Field findField(Class<?> clazz, String name, boolean allowCache) {
         Objects.requireNonNull(clazz, "clazz was null");
         Objects.requireNonNull(name, "field name was null");
-        String fieldName = getFieldName(clazz, name);
-        if (allowCache && FIELDS_CACHE.containsKey(fieldName)) {
-            return FIELDS_CACHE.get(fieldName);
+        MemberKey key = new MemberKey(clazz, name, List.of());
+        if (allowCache) {
+            Optional<Field> field = FIELDS_CACHE.get(key);
+            if (field != null) return field.orElse(null);
         }
+        Field field = null;
         try {
-            Field field = clazz.getDeclaredField(name);
+            field = clazz.getDeclaredField(name);
             field.setAccessible(true);
-            FIELDS_CACHE.put(fieldName, field);
-            return field;
         } catch (NoSuchFieldException e) {
-            PuzzlesLib.LOGGER.warn("Unable to find field {}", fieldName, e);
+            PuzzlesLib.LOGGER.warn("Unable to find field {}", getFieldName(clazz, name), e);
         }
-        FIELDS_CACHE.put(fieldName, null);
-        return null;
+        FIELDS_CACHE.put(key, Optional.ofNullable(field));
+        return field;
     }
 
     /**
@@ -90,20 +107,20 @@ public final class ReflectionHelperV2 {
     public static Method findMethod(Class<?> clazz, String name, boolean allowCache, Class<?>... parameterTypes) {
         Objects.requireNonNull(clazz, "clazz was null");
         Objects.requireNonNull(name, "method name was null");
-        String methodName = getMethodName(clazz, name, parameterTypes);
-        if (allowCache && METHODS_CACHE.containsKey(methodName)) {
-            return METHODS_CACHE.get(methodName);
+        MemberKey key = new MemberKey(clazz, name, List.of(parameterTypes));
+        if (allowCache) {
+            Optional<Method> method = METHODS_CACHE.get(key);
+            if (method != null) return method.orElse(null);
         }
+        Method method = null;
         try {
-            Method method = clazz.getDeclaredMethod(name, parameterTypes);
+            method = clazz.getDeclaredMethod(name, parameterTypes);
             method.setAccessible(true);
-            METHODS_CACHE.put(methodName, method);
-            return method;
         } catch (NoSuchMethodException e) {
-            PuzzlesLib.LOGGER.warn("Unable to find method {}", methodName, e);
+            PuzzlesLib.LOGGER.warn("Unable to find method {}", getMethodName(clazz, name, parameterTypes), e);
         }
-        METHODS_CACHE.put(methodName, null);
-        return null;
+        METHODS_CACHE.put(key, Optional.ofNullable(method));
+        return method;
     }
 
     /**
@@ -127,20 +144,93 @@ public final class ReflectionHelperV2 {
     @Nullable
     public static <T> Constructor<T> findConstructor(Class<?> clazz, boolean allowCache, Class<?>... parameterTypes) {
         Objects.requireNonNull(clazz, "clazz was null");
-        String constructorName = getConstructorName(clazz, parameterTypes);
-        if (allowCache && CONSTRUCTORS_CACHE.containsKey(constructorName)) {
-            return (Constructor<T>) CONSTRUCTORS_CACHE.get(constructorName);
+        MemberKey key = new MemberKey(clazz, "<init>", List.of(parameterTypes));
+        if (allowCache) {
+            Optional<Constructor<?>> constructor = CONSTRUCTORS_CACHE.get(key);
+            if (constructor != null) return (Constructor<T>) constructor.orElse(null);
         }
+        Constructor<T> constructor = null;
         try {
-            Constructor<T> constructor = (Constructor<T>) clazz.getDeclaredConstructor(parameterTypes);
+            constructor = (Constructor<T>) clazz.getDeclaredConstructor(parameterTypes);
             constructor.setAccessible(true);
-            CONSTRUCTORS_CACHE.put(constructorName, constructor);
-            return constructor;
         } catch (NoSuchMethodException e) {
-            PuzzlesLib.LOGGER.warn("Unable to find constructor {}", constructorName, e);
+            PuzzlesLib.LOGGER.warn("Unable to find constructor {}", getConstructorName(clazz, parameterTypes), e);
         }
-        CONSTRUCTORS_CACHE.put(constructorName, null);
-        return null;
+        CONSTRUCTORS_CACHE.put(key, Optional.ofNullable(constructor));
+        return constructor;
+    }
+
+    /**
+     * finds a field and creates a typed accessor backed by method handles, which is much faster than going through {@link Field} every time
+     * <p>store the returned accessor instead of looking it up repeatedly
+     *
+     * @param clazz clazz to get field from
+     * @param name field name
+     * @param <T> field type for auto-casting
+     * @return accessor for the field, empty if the field could not be found
+     */
+    public static <T> Optional<FieldAccessor<T>> findFieldAccessor(Class<?> clazz, String name) {
+        Optional<FieldAccessor<?>> accessor = FIELD_ACCESSORS_CACHE.computeIfAbsent(new MemberKey(clazz, name, List.of()), key -> {
+            Field field = findField(clazz, name);
+            if (field == null) return Optional.empty();
+            try {
+                return Optional.of(new FieldAccessor<>(field));
+            } catch (IllegalAccessException e) {
+                PuzzlesLib.LOGGER.warn("Unable to access field {}", getFieldName(field), e);
+                return Optional.empty();
+            }
+        });
+        return accessor.map(fieldAccessor -> (FieldAccessor<T>) fieldAccessor);
+    }
+
+    /**
+     * finds a method and creates a typed invoker backed by a method handle, which is much faster than going through {@link Method} every time
+     * <p>store the returned invoker instead of looking it up repeatedly
+     *
+     * @param clazz clazz to get method from
+     * @param name method name
+     * @param parameterTypes method arguments
+     * @param <T> return type for auto-casting
+     * @return invoker for the method, empty if the method could not be found
+     */
+    public static <T> Optional<MethodInvoker<T>> findMethodInvoker(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        Optional<MethodInvoker<?>> invoker = METHOD_INVOKERS_CACHE.computeIfAbsent(new MemberKey(clazz, name, List.of(parameterTypes)), key -> {
+            Method method = findMethod(clazz, name, parameterTypes);
+            if (method == null) return Optional.empty();
+            try {
+                MethodHandle handle = MethodHandles.lookup().unreflect(method);
+                if (Modifier.isStatic(method.getModifiers())) handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                return Optional.of(new MethodInvoker<>(getMethodName(method), handle, parameterTypes.length + 1));
+            } catch (IllegalAccessException e) {
+                PuzzlesLib.LOGGER.warn("Unable to access method {}", getMethodName(method), e);
+                return Optional.empty();
+            }
+        });
+        return invoker.map(methodInvoker -> (MethodInvoker<T>) methodInvoker);
+    }
+
+    /**
+     * finds a constructor and creates a typed invoker backed by a method handle, which is much faster than going through {@link Constructor} every time
+     * <p>the instance passed to {@link MethodInvoker#invoke} is ignored and may be null
+     *
+     * @param clazz clazz to get constructor from
+     * @param parameterTypes constructor arguments
+     * @param <T> class object type
+     * @return invoker for the constructor, empty if the constructor could not be found
+     */
+    public static <T> Optional<MethodInvoker<T>> findConstructorInvoker(Class<?> clazz, Class<?>... parameterTypes) {
+        Optional<MethodInvoker<?>> invoker = CONSTRUCTOR_INVOKERS_CACHE.computeIfAbsent(new MemberKey(clazz, "<init>", List.of(parameterTypes)), key -> {
+            Constructor<?> constructor = findConstructor(clazz, parameterTypes);
+            if (constructor == null) return Optional.empty();
+            try {
+                MethodHandle handle = MethodHandles.dropArguments(MethodHandles.lookup().unreflectConstructor(constructor), 0, Object.class);
+                return Optional.of(new MethodInvoker<>(getConstructorName(constructor), handle, parameterTypes.length + 1));
+            } catch (IllegalAccessException e) {
+                PuzzlesLib.LOGGER.warn("Unable to access constructor {}", getConstructorName(constructor), e);
+                return Optional.empty();
+            }
+        });
+        return invoker.map(methodInvoker -> (MethodInvoker<T>) methodInvoker);
     }
 
     public static <T, E> Optional<T> getValue(Class<? super E> clazz, String name, E instance) {
@@ -257,7 +347,7 @@ public final class ReflectionHelperV2 {
     }
 
     /**
-     * creates and interns the name of a field to be used in an identity map
+     * creates the name of a field for logging
      *
      * @param clazz parent class
      * @param field field name
@@ -286,7 +376,7 @@ public final class ReflectionHelperV2 {
     }
 
     /**
-     * creates and interns the name of a constructor to be used in an identity map
+     * creates the name of a constructor for logging
      * <p>same as {@link #getMethodName}, with name set to <init>
      *
      * @param clazz parent class
@@ -298,7 +388,7 @@ public final class ReflectionHelperV2 {
     }
 
     /**
-     * creates and interns the name of a method to be used in an identity map
+     * creates the name of a method for logging
      *
      * @param clazz parent class
      * @param method method name
@@ -323,13 +413,145 @@ public final class ReflectionHelperV2 {
     }
 
     /**
-     * creates and interns the name of a class member to be used in an identity map
+     * creates the name of a class member for logging
      *
      * @param clazz class containing member
      * @param member prepared member name
      * @return full member name
      */
     private static String getClassMemberName(Class<?> clazz, String member) {
-        return (clazz.getTypeName() + "." + member).intern();
+        return clazz.getTypeName() + "." + member;
+    }
+
+    /**
+     * rethrows exceptions from invoking method handles, wrapping checked exceptions
+     *
+     * @param name member name for the exception message
+     * @param throwable the exception
+     * @return nothing, always throws
+     */
+    private static RuntimeException rethrow(String name, Throwable throwable) {
+        if (throwable instanceof RuntimeException e) throw e;
+        if (throwable instanceof Error e) throw e;
+        throw new IllegalStateException("Unable to access %s".formatted(name), throwable);
+    }
+
+    /**
+     * key for caching class members
+     *
+     * @param clazz class containing member
+     * @param name member name
+     * @param parameterTypes parameter types for methods and constructors, empty for fields
+     */
+    private record MemberKey(Class<?> clazz, String name, List<Class<?>> parameterTypes) {
+
+    }
+
+    /**
+     * fast typed access to a field via method handles
+     *
+     * @param <T> field type
+     */
+    public static final class FieldAccessor<T> {
+        /**
+         * full field name for exceptions
+         */
+        private final String name;
+        /**
+         * getter of type <code>(Object)Object</code>, ignores the instance for static fields
+         */
+        private final MethodHandle getter;
+        /**
+         * setter of type <code>(Object,Object)void</code>, ignores the instance for static fields, null when the field cannot be written to
+         */
+        @Nullable
+        private final MethodHandle setter;
+
+        /**
+         * @param field the field, must be accessible already
+         * @throws IllegalAccessException when creating the getter fails
+         */
+        private FieldAccessor(Field field) throws IllegalAccessException {
+            this.name = getFieldName(field);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            boolean isStatic = Modifier.isStatic(field.getModifiers());
+            MethodHandle getter = lookup.unreflectGetter(field);
+            if (isStatic) getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            this.getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+            MethodHandle setter;
+            try {
+                setter = lookup.unreflectSetter(field);
+                if (isStatic) setter = MethodHandles.dropArguments(setter, 0, Object.class);
+                setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            } catch (IllegalAccessException e) {
+                // static final fields cannot be written to
+                setter = null;
+            }
+            this.setter = setter;
+        }
+
+        /**
+         * @param instance the object instance, ignored for static fields
+         * @return the field value
+         */
+        public T get(@Nullable Object instance) {
+            try {
+                return (T) (Object) this.getter.invokeExact(instance);
+            } catch (Throwable e) {
+                throw rethrow(this.name, e);
+            }
+        }
+
+        /**
+         * @param instance the object instance, ignored for static fields
+         * @param value the new field value
+         */
+        public void set(@Nullable Object instance, T value) {
+            if (this.setter == null) throw new IllegalStateException("Unable to write to final field %s".formatted(this.name));
+            try {
+                this.setter.invokeExact(instance, (Object) value);
+            } catch (Throwable e) {
+                throw rethrow(this.name, e);
+            }
+        }
+    }
+
+    /**
+     * fast typed invocation of a method or constructor via method handles
+     *
+     * @param <T> return type
+     */
+    public static final class MethodInvoker<T> {
+        /**
+         * full method name for exceptions
+         */
+        private final String name;
+        /**
+         * handle of type <code>(Object,Object[])Object</code>, ignores the instance for static methods and constructors
+         */
+        private final MethodHandle handle;
+
+        /**
+         * @param name full method name for exceptions
+         * @param handle handle taking the instance as first argument
+         * @param arity amount of arguments including the instance
+         */
+        private MethodInvoker(String name, MethodHandle handle, int arity) {
+            this.name = name;
+            this.handle = handle.asSpreader(Object[].class, arity - 1).asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+        }
+
+        /**
+         * @param instance the object instance, ignored for static methods and constructors
+         * @param args required method args
+         * @return method result, null when void
+         */
+        public T invoke(@Nullable Object instance, Object... args) {
+            try {
+                return (T) this.handle.invokeExact(instance, args);
+            } catch (Throwable e) {
+                throw rethrow(this.name, e);
+            }
+        }
     }
 }
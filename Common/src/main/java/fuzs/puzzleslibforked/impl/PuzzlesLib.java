@@ -1,7 +1,13 @@
 package fuzs.puzzleslibforked.impl;
 
+import fuzs.puzzleslibforked.config.serialization.ConfigDataSetImpl;
+import fuzs.puzzleslibforked.core.CommonAbstractions;
 import fuzs.puzzleslibforked.core.CommonFactories;
 import fuzs.puzzleslibforked.core.ModConstructor;
+import fuzs.puzzleslibforked.impl.capability.CapabilityIdTable;
+import fuzs.puzzleslibforked.impl.capability.CapabilitySyncScheduler;
+import fuzs.puzzleslibforked.impl.network.NetworkMetricsCommand;
+import fuzs.puzzleslibforked.impl.network.S2CCapabilityIdsMessage;
 import fuzs.puzzleslibforked.impl.network.S2CSyncCapabilityMessage;
 import fuzs.puzzleslibforked.network.MessageDirection;
 import fuzs.puzzleslibforked.network.NetworkHandler;
@@ -19,9 +25,19 @@ public class PuzzlesLib implements ModConstructor {
     @Override
     public void onConstructMod() {
         registerMessages();
+        CommonAbstractions.INSTANCE.registerEndServerTick(CapabilitySyncScheduler::onEndServerTick);
+        CommonAbstractions.INSTANCE.registerTagsUpdated(ConfigDataSetImpl::onTagsUpdated);
+        CommonAbstractions.INSTANCE.registerPlayerJoin(CapabilityIdTable::onPlayerJoin);
+    }
+
+    @Override
+    public void onRegisterCommands(RegisterCommandsContext context) {
+        NetworkMetricsCommand.register(context.dispatcher());
     }
 
     private static void registerMessages() {
         NETWORK.register(S2CSyncCapabilityMessage.class, S2CSyncCapabilityMessage::new, MessageDirection.TO_CLIENT);
+        // new messages go last, message ids are assigned in registration order and existing ones must not shift
+        NETWORK.register(S2CCapabilityIdsMessage.class, S2CCapabilityIdsMessage::new, MessageDirection.TO_CLIENT);
     }
 }
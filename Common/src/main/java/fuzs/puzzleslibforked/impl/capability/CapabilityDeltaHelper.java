@@ -0,0 +1,107 @@
+package fuzs.puzzleslibforked.impl.capability;
+
+import com.google.common.collect.MapMaker;
+import fuzs.puzzleslibforked.capability.data.SyncedCapabilityComponent;
+import fuzs.puzzleslibforked.impl.network.S2CSyncCapabilityMessage;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.Entity;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * creates and applies delta updates for capability components that only sync changes to their serialized data
+ */
+public class CapabilityDeltaHelper {
+    private static final String SET_KEY = "set";
+    private static final String DIFF_KEY = "diff";
+    private static final String REMOVE_KEY = "remove";
+    /**
+     * last state sent to all receivers of a component, deltas are always computed against this
+     * <p>keys are weak and compared by identity, so components of removed entities disappear on their own
+     */
+    private static final Map<SyncedCapabilityComponent, CompoundTag> BASELINES = new MapMaker().weakKeys().makeMap();
+
+    /**
+     * creates a message for syncing a component, which contains either the full serialized component or just changes since the last sync
+     *
+     * @param id            registered capability id
+     * @param holder        holder for this capability
+     * @param capability    capability to sync
+     * @param tag           current serialized state of <code>capability</code>
+     * @param force         forced syncs (login, dimension change) always send full data
+     * @param partial       only some receivers are synced (start tracking), they must receive the state everybody else has seen already
+     * @return              message to send, or null when nothing has changed
+     */
+    @Nullable
+    public static S2CSyncCapabilityMessage createSyncMessage(ResourceLocation id, Entity holder, SyncedCapabilityComponent capability, CompoundTag tag, boolean force, boolean partial) {
+        CompoundTag baseline = BASELINES.get(capability);
+        if (partial) {
+            return new S2CSyncCapabilityMessage(id, holder, baseline != null ? baseline : tag, false);
+        }
+        BASELINES.put(capability, tag);
+        if (force || baseline == null) {
+            return new S2CSyncCapabilityMessage(id, holder, tag, false);
+        }
+        CompoundTag delta = diff(baseline, tag);
+        return delta.isEmpty() ? null : new S2CSyncCapabilityMessage(id, holder, delta, true);
+    }
+
+    /**
+     * computes changes between two tags, nested compound tags are diffed recursively
+     *
+     * @param base      old tag
+     * @param current   new tag
+     * @return          delta for turning <code>base</code> into <code>current</code>, empty if both are equal
+     */
+    public static CompoundTag diff(CompoundTag base, CompoundTag current) {
+        CompoundTag set = new CompoundTag();
+        CompoundTag diff = new CompoundTag();
+        ListTag remove = new ListTag();
+        for (String key : current.getAllKeys()) {
+            Tag currentValue = current.get(key);
+            Tag baseValue = base.get(key);
+            if (currentValue.equals(baseValue)) continue;
+            if (currentValue instanceof CompoundTag currentCompound && baseValue instanceof CompoundTag baseCompound) {
+                diff.put(key, diff(baseCompound, currentCompound));
+            } else {
+                set.put(key, currentValue);
+            }
+        }
+        for (String key : base.getAllKeys()) {
+            if (!current.contains(key)) remove.add(StringTag.valueOf(key));
+        }
+        CompoundTag delta = new CompoundTag();
+        if (!set.isEmpty()) delta.put(SET_KEY, set);
+        if (!diff.isEmpty()) delta.put(DIFF_KEY, diff);
+        if (!remove.isEmpty()) delta.put(REMOVE_KEY, remove);
+        return delta;
+    }
+
+    /**
+     * applies changes created from {@link #diff} to a tag
+     *
+     * @param target    tag to modify
+     * @param delta     changes to apply
+     */
+    public static void apply(CompoundTag target, CompoundTag delta) {
+        ListTag remove = delta.getList(REMOVE_KEY, Tag.TAG_STRING);
+        for (int i = 0; i < remove.size(); i++) {
+            target.remove(remove.getString(i));
+        }
+        CompoundTag set = delta.getCompound(SET_KEY);
+        for (String key : set.getAllKeys()) {
+            target.put(key, set.get(key));
+        }
+        CompoundTag diff = delta.getCompound(DIFF_KEY);
+        for (String key : diff.getAllKeys()) {
+            CompoundTag nested = target.getCompound(key);
+            apply(nested, diff.getCompound(key));
+            target.put(key, nested);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package fuzs.puzzleslibforked.impl.capability;
+
+import com.google.common.collect.ImmutableList;
+import fuzs.puzzleslibforked.capability.CapabilityController;
+import fuzs.puzzleslibforked.capability.data.CapabilityKey;
+import fuzs.puzzleslibforked.impl.PuzzlesLib;
+import fuzs.puzzleslibforked.impl.network.S2CCapabilityIdsMessage;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * compact indices for capability ids, so capability syncs don't have to carry the full id
+ * <p>the server assigns indices to all registered capabilities and sends the table to every client when joining,
+ * the client resolves each id to its own {@link CapabilityKey} once, afterwards a sync only requires an array lookup
+ */
+public class CapabilityIdTable {
+    /**
+     * all capability ids on the server, the index of an id is the index used when syncing, null until first used
+     */
+    private static volatile List<ResourceLocation> serverIds;
+    /**
+     * index for every capability id on the server
+     */
+    private static volatile Object2IntMap<ResourceLocation> serverIndices;
+    /**
+     * capability keys on the client by index received from the server, null for capabilities not present on the client
+     */
+    private static volatile CapabilityKey<?>[] clientKeys = new CapabilityKey<?>[0];
+
+    /**
+     * sends the table of capability ids to a joining player
+     *
+     * @param player the joining player
+     */
+    public static void onPlayerJoin(ServerPlayer player) {
+        PuzzlesLib.NETWORK.sendTo(new S2CCapabilityIdsMessage(getServerIds()), player);
+    }
+
+    /**
+     * @param id    registered capability id
+     * @return      index for <code>id</code> in the table sent to clients
+     */
+    public static int getServerIndex(ResourceLocation id) {
+        getServerIds();
+        Object2IntMap<ResourceLocation> indices = serverIndices;
+        if (!indices.containsKey(id)) throw new IllegalStateException("No capability index assigned for id %s, capabilities must be registered during mod construction".formatted(id));
+        return indices.getInt(id);
+    }
+
+    /**
+     * builds the table from all registered capabilities once, sorted by id so the order does not depend on mod loading
+     *
+     * @return all capability ids on the server
+     */
+    private static List<ResourceLocation> getServerIds() {
+        List<ResourceLocation> ids = serverIds;
+        if (ids == null) {
+            synchronized (CapabilityIdTable.class) {
+                ids = serverIds;
+                if (ids == null) {
+                    ids = CapabilityController.CAPABILITY_KEY_REGISTRY.keySet().stream().sorted(Comparator.comparing(ResourceLocation::toString)).collect(ImmutableList.toImmutableList());
+                    Object2IntMap<ResourceLocation> indices = new Object2IntOpenHashMap<>(ids.size());
+                    for (int i = 0; i < ids.size(); i++) {
+                        indices.put(ids.get(i), i);
+                    }
+                    serverIndices = indices;
+                    serverIds = ids;
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * resolves the table received from the server to capability keys on the client
+     *
+     * @param ids   all capability ids on the server, in index order
+     */
+    public static void setClientIds(List<ResourceLocation> ids) {
+        CapabilityKey<?>[] keys = new CapabilityKey<?>[ids.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = CapabilityController.CAPABILITY_KEY_REGISTRY.get(ids.get(i));
+            if (keys[i] == null) {
+                PuzzlesLib.LOGGER.warn("Capability {} present on server is missing on client", ids.get(i));
+            }
+        }
+        clientKeys = keys;
+    }
+
+    /**
+     * @param index index received from the server
+     * @return      capability key on the client for <code>index</code>
+     */
+    public static CapabilityKey<?> getClientKey(int index) {
+        CapabilityKey<?>[] keys = clientKeys;
+        if (index < 0 || index >= keys.length) throw new IllegalStateException("No capability id received for index %s".formatted(index));
+        CapabilityKey<?> key = keys[index];
+        if (key == null) throw new IllegalStateException("No capability registered for index %s".formatted(index));
+        return key;
+    }
+}
@@ -0,0 +1,95 @@
+package fuzs.puzzleslibforked.impl.capability;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import fuzs.puzzleslibforked.capability.data.PlayerCapabilityKey;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * collects player capabilities that have been marked dirty and syncs all of them once at the end of the server tick
+ */
+public class CapabilitySyncScheduler {
+    /**
+     * pending capabilities, a capability is only ever synced once per tick no matter how often it was marked dirty
+     */
+    private static final Set<DirtyEntry> DIRTY_ENTRIES = ConcurrentHashMap.newKeySet();
+    /**
+     * minimum amount of ticks between two automatic syncs for a capability, capabilities not present here sync every tick
+     */
+    private static final Map<PlayerCapabilityKey<?>, Integer> SYNC_INTERVALS = Maps.newConcurrentMap();
+    /**
+     * server tick at which a capability has last been synced automatically, only tracked for capabilities with a custom sync interval
+     * <p>weak keys, so entries for players that have left disappear on their own
+     */
+    private static final Map<ServerPlayer, Object2IntMap<PlayerCapabilityKey<?>>> LAST_SYNC_TICKS = new MapMaker().weakKeys().makeMap();
+
+    /**
+     * schedule a capability for syncing at the end of the current tick
+     *
+     * @param holder    player holding the capability
+     * @param key       capability key
+     */
+    public static void schedule(ServerPlayer holder, PlayerCapabilityKey<?> key) {
+        DIRTY_ENTRIES.add(new DirtyEntry(holder, key));
+    }
+
+    /**
+     * @param key       capability key
+     * @param ticks     minimum amount of ticks between two automatic syncs
+     */
+    public static void setSyncInterval(PlayerCapabilityKey<?> key, int ticks) {
+        if (ticks < 1) throw new IllegalArgumentException("Sync interval must be at least one tick, was %s".formatted(ticks));
+        SYNC_INTERVALS.put(key, ticks);
+    }
+
+    /**
+     * syncs all pending capabilities, capabilities that have been synced too recently stay queued
+     *
+     * @param server the ticking server
+     */
+    public static void onEndServerTick(MinecraftServer server) {
+        if (DIRTY_ENTRIES.isEmpty()) return;
+        int tickCount = server.getTickCount();
+        Map<ServerPlayer, List<PlayerCapabilityKey<?>>> entriesByHolder = Maps.newLinkedHashMap();
+        Iterator<DirtyEntry> iterator = DIRTY_ENTRIES.iterator();
+        while (iterator.hasNext()) {
+            DirtyEntry entry = iterator.next();
+            ServerPlayer holder = entry.holder();
+            if (!holder.isRemoved() && !holder.hasDisconnected()) {
+                int syncInterval = SYNC_INTERVALS.getOrDefault(entry.key(), 1);
+                if (syncInterval > 1) {
+                    Object2IntMap<PlayerCapabilityKey<?>> lastSyncTicks = LAST_SYNC_TICKS.computeIfAbsent(holder, player -> new Object2IntOpenHashMap<>());
+                    if (lastSyncTicks.containsKey(entry.key()) && tickCount - lastSyncTicks.getInt(entry.key()) < syncInterval) continue;
+                    lastSyncTicks.put(entry.key(), tickCount);
+                }
+                entriesByHolder.computeIfAbsent(holder, player -> Lists.newArrayList()).add(entry.key());
+            }
+            iterator.remove();
+        }
+        entriesByHolder.forEach((ServerPlayer holder, List<PlayerCapabilityKey<?>> keys) -> {
+            for (PlayerCapabilityKey<?> key : keys) {
+                key.syncToRemote(holder);
+            }
+        });
+    }
+
+    /**
+     * a capability waiting to be synced
+     *
+     * @param holder    player holding the capability
+     * @param key       capability key
+     */
+    private record DirtyEntry(ServerPlayer holder, PlayerCapabilityKey<?> key) {
+
+    }
+}
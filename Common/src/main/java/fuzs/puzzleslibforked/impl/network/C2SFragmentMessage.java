@@ -0,0 +1,15 @@
+package fuzs.puzzleslibforked.impl.network;
+
+/**
+ * carries part of a serverbound message that has been split up
+ */
+public class C2SFragmentMessage extends FragmentMessage<C2SFragmentMessage> {
+
+    public C2SFragmentMessage() {
+
+    }
+
+    public C2SFragmentMessage(int sequenceId, int typeId, boolean last, byte[] data) {
+        super(sequenceId, typeId, last, data);
+    }
+}
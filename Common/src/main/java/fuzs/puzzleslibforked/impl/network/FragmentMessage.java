@@ -0,0 +1,89 @@
+package fuzs.puzzleslibforked.impl.network;
+
+import fuzs.puzzleslibforked.network.Message;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.entity.player.Player;
+
+/**
+ * carries part of an encoded message that has been split up, so it fits into vanilla's custom payload size limits
+ * <p>fragments are collected on the network thread as soon as they arrive, only the reassembled message is ever handled on the main thread
+ *
+ * @param <T> this message
+ */
+public abstract class FragmentMessage<T extends FragmentMessage<T>> implements Message<T> {
+    /**
+     * larger than any fragment size used when sending
+     */
+    private static final int MAX_FRAGMENT_SIZE = 1 << 20;
+
+    private int sequenceId;
+    private int typeId;
+    private boolean last;
+    private byte[] data;
+
+    protected FragmentMessage() {
+
+    }
+
+    protected FragmentMessage(int sequenceId, int typeId, boolean last, byte[] data) {
+        this.sequenceId = sequenceId;
+        this.typeId = typeId;
+        this.last = last;
+        this.data = data;
+    }
+
+    /**
+     * @return id shared by all fragments of a message
+     */
+    public int getSequenceId() {
+        return this.sequenceId;
+    }
+
+    /**
+     * @return id of the message type that has been split up
+     */
+    public int getTypeId() {
+        return this.typeId;
+    }
+
+    /**
+     * @return is this the last fragment of the message
+     */
+    public boolean isLast() {
+        return this.last;
+    }
+
+    /**
+     * @return part of the encoded message
+     */
+    public byte[] getData() {
+        return this.data;
+    }
+
+    @Override
+    public void write(FriendlyByteBuf buf) {
+        buf.writeVarInt(this.sequenceId);
+        buf.writeVarInt(this.typeId);
+        buf.writeBoolean(this.last);
+        buf.writeByteArray(this.data);
+    }
+
+    @Override
+    public void read(FriendlyByteBuf buf) {
+        this.sequenceId = buf.readVarInt();
+        this.typeId = buf.readVarInt();
+        this.last = buf.readBoolean();
+        this.data = buf.readByteArray(MAX_FRAGMENT_SIZE);
+    }
+
+    @Override
+    public MessageHandler<T> makeHandler() {
+        return new MessageHandler<>() {
+
+            @Override
+            public void handle(T message, Player player, Object gameInstance) {
+                throw new IllegalStateException("Message fragments must be collected on the network thread");
+            }
+        };
+    }
+}
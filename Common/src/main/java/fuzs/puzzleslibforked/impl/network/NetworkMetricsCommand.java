@@ -0,0 +1,88 @@
+package fuzs.puzzleslibforked.impl.network;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+import fuzs.puzzleslibforked.core.ModLoaderEnvironment;
+import fuzs.puzzleslibforked.impl.PuzzlesLib;
+import fuzs.puzzleslibforked.network.NetworkMetrics;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.TextComponent;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * command for controlling and reading {@link NetworkMetrics} of all network handlers
+ */
+public class NetworkMetricsCommand {
+    /**
+     * how many message types are listed when showing metrics
+     */
+    private static final int SHOW_LIMIT = 10;
+    private static final SimpleCommandExceptionType ERROR_DUMP_FAILED = new SimpleCommandExceptionType(new TextComponent("Failed to dump network metrics, see log for details"));
+
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal(PuzzlesLib.MOD_ID).requires(source -> source.hasPermission(2))
+                .then(Commands.literal("networkmetrics")
+                        .then(Commands.literal("enable").executes(context -> {
+                            NetworkMetrics.setEnabled(true);
+                            context.getSource().sendSuccess(new TextComponent("Started recording network metrics"), true);
+                            return 1;
+                        }))
+                        .then(Commands.literal("disable").executes(context -> {
+                            NetworkMetrics.setEnabled(false);
+                            context.getSource().sendSuccess(new TextComponent("Stopped recording network metrics"), true);
+                            return 1;
+                        }))
+                        .then(Commands.literal("reset").executes(context -> {
+                            NetworkMetrics.resetAll();
+                            context.getSource().sendSuccess(new TextComponent("Cleared all network metrics"), true);
+                            return 1;
+                        }))
+                        .then(Commands.literal("show").executes(context -> show(context.getSource())))
+                        .then(Commands.literal("dump").executes(context -> dump(context.getSource())))));
+    }
+
+    private static int show(CommandSourceStack source) {
+        List<NetworkMetrics.Snapshot> snapshots = NetworkMetrics.snapshotAll().stream()
+                .filter(snapshot -> snapshot.sent() + snapshot.encoded() + snapshot.received() + snapshot.handled() > 0)
+                .sorted(Comparator.comparingLong(NetworkMetrics.Snapshot::totalBytes).reversed())
+                .limit(SHOW_LIMIT)
+                .toList();
+        if (snapshots.isEmpty()) {
+            source.sendSuccess(new TextComponent("No network traffic recorded%s".formatted(NetworkMetrics.isEnabled() ? "" : ", recording is disabled")), false);
+        }
+        for (NetworkMetrics.Snapshot snapshot : snapshots) {
+            source.sendSuccess(new TextComponent("[%s] %s (%s): sent %s (%s bytes), encoded %s (%.1f us avg), received %s (%s bytes, %.1f us avg), handled %s (%.1f us avg)".formatted(
+                    snapshot.modId(), snapshot.clazz().getSimpleName(), snapshot.direction(),
+                    snapshot.sent(), snapshot.sentBytes(), snapshot.encoded(), average(snapshot.encodeNanos(), snapshot.encoded()),
+                    snapshot.received(), snapshot.receivedBytes(), average(snapshot.decodeNanos(), snapshot.received()),
+                    snapshot.handled(), average(snapshot.handleNanos(), snapshot.handled()))), false);
+        }
+        return snapshots.size();
+    }
+
+    private static int dump(CommandSourceStack source) throws CommandSyntaxException {
+        try {
+            Path path = NetworkMetrics.dumpAll(ModLoaderEnvironment.INSTANCE.getGameDir().resolve("debug"));
+            source.sendSuccess(new TextComponent("Dumped network metrics to %s".formatted(path.toAbsolutePath())), true);
+            return 1;
+        } catch (IOException e) {
+            PuzzlesLib.LOGGER.error("Failed to dump network metrics", e);
+            throw ERROR_DUMP_FAILED.create();
+        }
+    }
+
+    /**
+     * @param nanos total time in nanoseconds
+     * @param count amount of recorded events
+     * @return average time in microseconds
+     */
+    private static double average(long nanos, long count) {
+        return count == 0 ? 0.0 : nanos / 1000.0 / count;
+    }
+}
@@ -0,0 +1,83 @@
+package fuzs.puzzleslibforked.impl.network;
+
+import com.google.common.collect.Lists;
+import fuzs.puzzleslibforked.network.Message;
+import fuzs.puzzleslibforked.network.NetworkHandlerImpl;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.entity.player.Player;
+
+import java.util.List;
+
+/**
+ * carries multiple clientbound messages of a single network handler in one packet
+ */
+public class S2CBundleMessage implements Message<S2CBundleMessage> {
+    /**
+     * maximum size of the bundled messages, leaves plenty of room to the vanilla limit for custom payloads
+     */
+    private static final int MAX_BUNDLE_SIZE = 1 << 19;
+
+    private final NetworkHandlerImpl handler;
+    private final FriendlyByteBuf payload = new FriendlyByteBuf(Unpooled.buffer());
+    private final List<Message<?>> messages = Lists.newArrayList();
+    private int size;
+
+    public S2CBundleMessage(NetworkHandlerImpl handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * adds an encoded message to this bundle
+     *
+     * @param encoded message type id followed by message data, the buffer itself is left untouched so it can be shared between bundles
+     */
+    public void add(ByteBuf encoded) {
+        this.payload.writeBytes(encoded, encoded.readerIndex(), encoded.readableBytes());
+        this.size++;
+    }
+
+    /**
+     * @param encoded   message type id followed by message data
+     * @return          can <code>encoded</code> be added without this bundle growing past the size limit
+     */
+    public boolean canAdd(ByteBuf encoded) {
+        return this.payload.readableBytes() + encoded.readableBytes() <= MAX_BUNDLE_SIZE;
+    }
+
+    /**
+     * @param encoded   message type id followed by message data
+     * @return          does <code>encoded</code> fit into an empty bundle, larger messages must be sent on their own
+     */
+    public static boolean canBundle(ByteBuf encoded) {
+        return encoded.readableBytes() <= MAX_BUNDLE_SIZE;
+    }
+
+    @Override
+    public void write(FriendlyByteBuf buf) {
+        buf.writeVarInt(this.size);
+        buf.writeBytes(this.payload, this.payload.readerIndex(), this.payload.readableBytes());
+    }
+
+    @Override
+    public void read(FriendlyByteBuf buf) {
+        int size = buf.readVarInt();
+        for (int i = 0; i < size; i++) {
+            this.messages.add(this.handler.decode(this.handler.getMessageType(buf.readVarInt()), buf));
+        }
+    }
+
+    @Override
+    public MessageHandler<S2CBundleMessage> makeHandler() {
+        return new MessageHandler<>() {
+
+            @Override
+            public void handle(S2CBundleMessage message, Player player, Object gameInstance) {
+                for (Message<?> bundled : message.messages) {
+                    message.handler.handle(message.handler.getMessageType(bundled.getClass()), bundled, player, gameInstance);
+                }
+            }
+        };
+    }
+}
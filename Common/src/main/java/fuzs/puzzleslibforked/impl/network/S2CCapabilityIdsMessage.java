@@ -0,0 +1,53 @@
+package fuzs.puzzleslibforked.impl.network;
+
+import com.google.common.collect.Lists;
+import fuzs.puzzleslibforked.impl.capability.CapabilityIdTable;
+import fuzs.puzzleslibforked.network.Message;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.player.Player;
+
+import java.util.List;
+
+/**
+ * sends all capability ids on the server to a joining client, the index of an id is used for syncing that capability afterwards
+ */
+public class S2CCapabilityIdsMessage implements Message<S2CCapabilityIdsMessage> {
+    private List<ResourceLocation> ids;
+
+    public S2CCapabilityIdsMessage() {
+
+    }
+
+    public S2CCapabilityIdsMessage(List<ResourceLocation> ids) {
+        this.ids = ids;
+    }
+
+    @Override
+    public void write(FriendlyByteBuf buf) {
+        buf.writeVarInt(this.ids.size());
+        for (ResourceLocation id : this.ids) {
+            buf.writeResourceLocation(id);
+        }
+    }
+
+    @Override
+    public void read(FriendlyByteBuf buf) {
+        int size = buf.readVarInt();
+        this.ids = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            this.ids.add(buf.readResourceLocation());
+        }
+    }
+
+    @Override
+    public MessageHandler<S2CCapabilityIdsMessage> makeHandler() {
+        return new MessageHandler<>() {
+
+            @Override
+            public void handle(S2CCapabilityIdsMessage message, Player player, Object gameInstance) {
+                CapabilityIdTable.setClientIds(message.ids);
+            }
+        };
+    }
+}
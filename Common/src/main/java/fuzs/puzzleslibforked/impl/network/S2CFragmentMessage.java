@@ -0,0 +1,15 @@
+package fuzs.puzzleslibforked.impl.network;
+
+/**
+ * carries part of a clientbound message that has been split up
+ */
+public class S2CFragmentMessage extends FragmentMessage<S2CFragmentMessage> {
+
+    public S2CFragmentMessage() {
+
+    }
+
+    public S2CFragmentMessage(int sequenceId, int typeId, boolean last, byte[] data) {
+        super(sequenceId, typeId, last, data);
+    }
+}
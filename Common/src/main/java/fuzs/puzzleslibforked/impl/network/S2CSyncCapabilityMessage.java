@@ -1,7 +1,11 @@
 package fuzs.puzzleslibforked.impl.network;
 
-import fuzs.puzzleslibforked.capability.CapabilityController;
+import fuzs.puzzleslibforked.capability.data.BinaryCapabilityComponent;
+import fuzs.puzzleslibforked.capability.data.CapabilityComponent;
+import fuzs.puzzleslibforked.impl.capability.CapabilityDeltaHelper;
+import fuzs.puzzleslibforked.impl.capability.CapabilityIdTable;
 import fuzs.puzzleslibforked.network.Message;
+import io.netty.buffer.Unpooled;
 import net.minecraft.client.Minecraft;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
@@ -12,32 +16,70 @@ import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
 
 public class S2CSyncCapabilityMessage implements Message<S2CSyncCapabilityMessage> {
+    private static final byte FULL_MODE = 0;
+    private static final byte DELTA_MODE = 1;
+    private static final byte BINARY_MODE = 2;
+
     private ResourceLocation id;
+    /**
+     * index of the capability id assigned by {@link CapabilityIdTable}, only set when receiving
+     */
+    private int index;
     private int holderId;
+    private byte mode;
     private CompoundTag tag;
+    private BinaryCapabilityComponent capability;
+    private byte[] data;
 
     public S2CSyncCapabilityMessage() {
 
     }
 
     public S2CSyncCapabilityMessage(ResourceLocation id, Entity holder, CompoundTag tag) {
+        this(id, holder, tag, false);
+    }
+
+    public S2CSyncCapabilityMessage(ResourceLocation id, Entity holder, CompoundTag tag, boolean delta) {
         this.id = id;
         this.holderId = holder.getId();
+        this.mode = delta ? DELTA_MODE : FULL_MODE;
         this.tag = tag;
     }
 
+    public S2CSyncCapabilityMessage(ResourceLocation id, Entity holder, BinaryCapabilityComponent capability) {
+        this.id = id;
+        this.holderId = holder.getId();
+        this.mode = BINARY_MODE;
+        this.capability = capability;
+    }
+
     @Override
     public void write(FriendlyByteBuf buf) {
-        buf.writeResourceLocation(this.id);
-        buf.writeInt(this.holderId);
-        buf.writeNbt(this.tag);
+        buf.writeVarInt(CapabilityIdTable.getServerIndex(this.id));
+        buf.writeVarInt(this.holderId);
+        buf.writeByte(this.mode);
+        if (this.mode == BINARY_MODE) {
+            // write length afterwards, so the component can be written directly without going through an intermediate buffer
+            int lengthIndex = buf.writerIndex();
+            buf.writeInt(0);
+            this.capability.writeBuf(buf);
+            buf.setInt(lengthIndex, buf.writerIndex() - lengthIndex - 4);
+        } else {
+            buf.writeNbt(this.tag);
+        }
     }
 
     @Override
     public void read(FriendlyByteBuf buf) {
-        this.id = buf.readResourceLocation();
-        this.holderId = buf.readInt();
-        this.tag = buf.readNbt();
+        this.index = buf.readVarInt();
+        this.holderId = buf.readVarInt();
+        this.mode = buf.readByte();
+        if (this.mode == BINARY_MODE) {
+            this.data = new byte[buf.readInt()];
+            buf.readBytes(this.data);
+        } else {
+            this.tag = buf.readNbt();
+        }
     }
 
     @Override
@@ -49,7 +91,21 @@ public class S2CSyncCapabilityMessage implements Message<S2CSyncCapabilityMessag
                 Level level = ((Minecraft) gameInstance).level;
                 Entity holder = level.getEntity(message.holderId);
                 if (holder != null) {
-                    CapabilityController.retrieve(message.id).orThrow(holder).read(message.tag);
+                    CapabilityComponent capability = CapabilityIdTable.getClientKey(message.index).orThrow(holder);
+                    switch (message.mode) {
+                        case DELTA_MODE -> {
+                            CompoundTag tag = capability.toCompoundTag();
+                            CapabilityDeltaHelper.apply(tag, message.tag);
+                            capability.read(tag);
+                        }
+                        case BINARY_MODE -> {
+                            if (!(capability instanceof BinaryCapabilityComponent binaryCapability)) {
+                                throw new IllegalStateException("Unable to read binary data for capability component that is not of type %s".formatted(BinaryCapabilityComponent.class));
+                            }
+                            binaryCapability.readBuf(new FriendlyByteBuf(Unpooled.wrappedBuffer(message.data)));
+                        }
+                        default -> capability.read(message.tag);
+                    }
                 }
             }
         };
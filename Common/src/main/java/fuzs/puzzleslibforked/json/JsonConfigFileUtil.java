@@ -6,12 +6,22 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import fuzs.puzzleslibforked.core.ModLoaderEnvironment;
 import fuzs.puzzleslibforked.impl.PuzzlesLib;
+import net.minecraft.Util;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * handles loading and saving of json config files
@@ -70,6 +80,60 @@ public class JsonConfigFileUtil {
         load(jsonFileInDir, serializer, deserializer);
     }
 
+    /**
+     * load a json file in the main config directory and bind it directly to <code>type</code> while streaming, create a file if absent
+     * @param jsonName name of the file to load
+     * @param serializer serializer creates a {@link JsonElement} and then calls {@link #saveToFile}
+     * @param type type to bind to, see {@link JsonSerializationUtil#readJsonObject(Reader, Class)}
+     * @param deserializer handles the bound object
+     * @param <T> object type
+     */
+    public static <T> void getAndBind(String jsonName, Consumer<File> serializer, Class<T> type, Consumer<T> deserializer) {
+        File jsonFile = getConfigPath(jsonName);
+        createIfAbsent(jsonFile, serializer);
+        bindFromFile(jsonFile, type, deserializer);
+    }
+
+    /**
+     * load a json file in the mods own config directory and bind it directly to <code>type</code> while streaming, create a file if absent
+     * @param jsonName name of the file to load
+     * @param modId config directory name
+     * @param serializer serializer creates a {@link JsonElement} and then calls {@link #saveToFile}
+     * @param type type to bind to, see {@link JsonSerializationUtil#readJsonObject(Reader, Class)}
+     * @param deserializer handles the bound object
+     * @param <T> object type
+     */
+    public static <T> void getAndBind(String jsonName, String modId, Consumer<File> serializer, Class<T> type, Consumer<T> deserializer) {
+        File jsonFileInDir = getSpecialConfigPath(jsonName, modId);
+        createIfAbsent(jsonFileInDir, serializer);
+        bindFromFile(jsonFileInDir, type, deserializer);
+    }
+
+    /**
+     * load a json file in the main config directory and stream its properties to <code>visitor</code>, create a file if absent
+     * @param jsonName name of the file to load
+     * @param serializer serializer creates a {@link JsonElement} and then calls {@link #saveToFile}
+     * @param visitor visitor receiving all properties apart from file format and comments
+     */
+    public static void getAndVisit(String jsonName, Consumer<File> serializer, JsonSerializationUtil.JsonPropertyVisitor visitor) {
+        File jsonFile = getConfigPath(jsonName);
+        createIfAbsent(jsonFile, serializer);
+        visitFromFile(jsonFile, visitor);
+    }
+
+    /**
+     * load a json file in the mods own config directory and stream its properties to <code>visitor</code>, create a file if absent
+     * @param jsonName name of the file to load
+     * @param modId config directory name
+     * @param serializer serializer creates a {@link JsonElement} and then calls {@link #saveToFile}
+     * @param visitor visitor receiving all properties apart from file format and comments
+     */
+    public static void getAndVisit(String jsonName, String modId, Consumer<File> serializer, JsonSerializationUtil.JsonPropertyVisitor visitor) {
+        File jsonFileInDir = getSpecialConfigPath(jsonName, modId);
+        createIfAbsent(jsonFileInDir, serializer);
+        visitFromFile(jsonFileInDir, visitor);
+    }
+
     /**
      * load a json file in the main config directory, create a file if absent
      * @param jsonName name of the file to load
@@ -84,6 +148,74 @@ public class JsonConfigFileUtil {
         loadAllFiles(jsonDir, deserializer, prepareForLoad, files);
     }
 
+    /**
+     * load all json files in a directory in the main config directory, create files if absent
+     * <p>files are read and parsed in parallel on a background executor,
+     * afterwards they are given to <code>deserializer</code> one by one on the calling thread, sorted by path
+     * @param jsonName name of the directory to load
+     * @param serializer serializer creates a {@link JsonElement} and then calls {@link #saveToFile}
+     * @param deserializer deserializer handles the parsed {@link JsonElement} for a file
+     * @param prepareForLoad action to run before loading new files, usually cleaning up a collection
+     */
+    public static void getAllAndLoadParallel(String jsonName, Consumer<File> serializer, BiConsumer<File, JsonElement> deserializer, Runnable prepareForLoad) {
+        File jsonDir = getConfigPath(jsonName);
+        List<File> files = Lists.newArrayList();
+        createAllIfAbsent(jsonDir, serializer, files);
+        if (files.isEmpty()) getAllFilesRecursive(jsonDir, SEARCH_DEPTH, files, name -> name.endsWith(".json"));
+        // start parsing all files before waiting on any of them
+        List<CompletableFuture<JsonElement>> futures = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> parseFile(file), Util.backgroundExecutor()))
+                .collect(Collectors.toList());
+        prepareForLoad.run();
+        for (int i = 0; i < files.size(); i++) {
+            File file = files.get(i);
+            JsonElement jsonElement = futures.get(i).join();
+            if (jsonElement == null) continue;
+            try {
+                deserializer.accept(file, jsonElement);
+            } catch (Exception e) {
+                PuzzlesLib.LOGGER.error("Failed to read {} in config directory: {}", file.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * watch a directory in the main config directory for changes, only json files that have been created or modified are parsed again
+     * <p>use together with {@link #getAllAndLoadParallel} to load all files initially, or with a mod's own config directory (the mod id as <code>jsonName</code>)
+     * <p>changes are collected until the directory has been quiet for a moment, saving files from the mod itself will also trigger a reload
+     * @param jsonName name of the directory to watch
+     * @param deserializer deserializer handles the parsed {@link JsonElement} for a changed file, not called for deleted files
+     * @param executor executor to run <code>deserializer</code> on, usually the server or client instance for running on the main thread
+     * @return handle for stopping the watcher, nothing is watched if the directory cannot be watched
+     */
+    public static Closeable watch(String jsonName, BiConsumer<File, JsonElement> deserializer, Executor executor) {
+        File jsonDir = getConfigPath(jsonName);
+        mkdirs(jsonDir);
+        try {
+            return JsonDirectoryWatcher.start(jsonDir.toPath(), SEARCH_DEPTH, deserializer, executor);
+        } catch (IOException e) {
+            PuzzlesLib.LOGGER.error("Failed to watch {} directory: {}", jsonDir.getName(), e);
+        }
+        return () -> {};
+    }
+
+    /**
+     * reads a json file into a {@link JsonElement} using a buffered reader
+     * @param file file to parse
+     * @return the parsed {@link JsonElement}, null if reading failed
+     */
+    @Nullable
+    static JsonElement parseFile(File file) {
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            JsonElement jsonElement = GSON.fromJson(reader, JsonElement.class);
+            if (jsonElement == null) throw new IllegalStateException("File %s is empty".formatted(file.getName()));
+            return jsonElement;
+        } catch (Exception e) {
+            PuzzlesLib.LOGGER.error("Failed to read {} in config directory: {}", file.getName(), e);
+        }
+        return null;
+    }
+
     /**
      * @param jsonDir working directory
      * @param serializer serializer creates a {@link JsonElement} and then calls {@link #saveToFile}
@@ -133,14 +265,13 @@ public class JsonConfigFileUtil {
      * @return was this action successful
      */
     public static boolean copyToFile(File jsonFile) {
-        mkdirs(jsonFile.getParentFile());
         // has to always be normal slash (even Windows), not File.separator
-        try (InputStream input = JsonConfigFileUtil.class.getResourceAsStream("/" + jsonFile.getName()); FileOutputStream output = new FileOutputStream(jsonFile)) {
+        try (InputStream input = JsonConfigFileUtil.class.getResourceAsStream("/" + jsonFile.getName())) {
+            // check for the resource first, so no empty file is left behind when it is missing
             if (input != null) {
-                jsonFile.createNewFile();
-                byte[] buffer = new byte[16384];
-                for (int lengthRead = input.read(buffer); lengthRead > 0; lengthRead = input.read(buffer)) {
-                    output.write(buffer, 0, lengthRead);
+                mkdirs(jsonFile.getParentFile());
+                try (OutputStream output = new BufferedOutputStream(new FileOutputStream(jsonFile))) {
+                    input.transferTo(output);
                 }
                 return true;
             }
@@ -152,19 +283,26 @@ public class JsonConfigFileUtil {
 
     /**
      * save <code>jsonElement</code> to <code>jsonFile</code>
+     * <p>the file is written to a temporary file first which is then moved into place, so the old content stays intact when writing fails
+     * <p>supersedes a save of the same file still pending from {@link #saveToFileAsync}
      * @param jsonFile file to save to
      * @param jsonElement {@link JsonElement} to save
      * @return was this action successful
      */
     public static boolean saveToFile(File jsonFile, JsonElement jsonElement) {
-        mkdirs(jsonFile.getParentFile());
-        try (FileWriter writer = new FileWriter(jsonFile)) {
-            GSON.toJson(jsonElement, writer);
-            return true;
-        } catch (Exception e) {
-            PuzzlesLib.LOGGER.error("Failed to create {} in config directory: {}", jsonFile.getName(), e);
-        }
-        return false;
+        return JsonFileWriter.writeNow(jsonFile, jsonElement);
+    }
+
+    /**
+     * save <code>jsonElement</code> to <code>jsonFile</code> on a background thread, same as {@link #saveToFile}
+     * <p>repeated saves of the same file in quick succession are coalesced into a single write of the latest content,
+     * pending writes are finished when the game shuts down
+     * @param jsonFile file to save to
+     * @param jsonElement {@link JsonElement} to save, must not be modified afterwards
+     * @return future completing with whether the write was successful
+     */
+    public static CompletableFuture<Boolean> saveToFileAsync(File jsonFile, JsonElement jsonElement) {
+        return JsonFileWriter.writeAsync(jsonFile, jsonElement);
     }
 
     /**
@@ -181,28 +319,54 @@ public class JsonConfigFileUtil {
     }
 
     /**
-     * find all files in a directory
+     * binds the contents of <code>file</code> to <code>type</code> while streaming and gives the result to <code>deserializer</code>
+     * @param file file to load
+     * @param type type to bind to
+     * @param deserializer handles the bound object
+     * @param <T> object type
+     */
+    private static <T> void bindFromFile(File file, Class<T> type, Consumer<T> deserializer) {
+        T object;
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            object = JsonSerializationUtil.readJsonObject(reader, type);
+        } catch (Exception e) {
+            PuzzlesLib.LOGGER.error("Failed to read {} in config directory: {}", file.getName(), e);
+            return;
+        }
+        deserializer.accept(object);
+    }
+
+    /**
+     * streams all properties of <code>file</code> to <code>visitor</code>
+     * @param file file to load
+     * @param visitor visitor receiving all properties apart from file format and comments
+     */
+    private static void visitFromFile(File file, JsonSerializationUtil.JsonPropertyVisitor visitor) {
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            JsonSerializationUtil.visitJsonObject(reader, visitor);
+        } catch (Exception e) {
+            PuzzlesLib.LOGGER.error("Failed to read {} in config directory: {}", file.getName(), e);
+        }
+    }
+
+    /**
+     * find all files in a directory, sorted by path so loading order does not depend on the file system
      * @param directory directory to search for files
      * @param searchLayers how many recursive layers are allowed
      * @param fileList list to add all found files to
      * @param fileNamePredicate predicate for only finding files of a certain type
      */
     private static void getAllFilesRecursive(File directory, int searchLayers, List<File> fileList, Predicate<String> fileNamePredicate) {
-        File[] allFilesAndDirs = directory.listFiles();
-        if (allFilesAndDirs != null) {
-            for (File file : allFilesAndDirs) {
-                if (file.isDirectory()) {
-                    if (searchLayers > 0) {
-                        getAllFilesRecursive(file, searchLayers - 1, fileList, fileNamePredicate);
-                    }
-                } else if (fileList.size() < 128 && fileNamePredicate.test(file.getName())) {
-                    try {
-                        fileList.add(file);
-                    } catch (Exception e) {
-                        PuzzlesLib.LOGGER.error("Failed to locate files in {} directory: {}", directory.getName(), e);
-                    }
-                }
-            }
+        if (!directory.isDirectory()) return;
+        // files directly in the directory are at depth 1, so one more than allowed search layers
+        try (Stream<Path> paths = Files.walk(directory.toPath(), searchLayers + 1)) {
+            paths.filter(Files::isRegularFile)
+                    .filter(path -> fileNamePredicate.test(path.getFileName().toString()))
+                    .sorted(Comparator.naturalOrder())
+                    .map(Path::toFile)
+                    .forEach(fileList::add);
+        } catch (IOException | UncheckedIOException e) {
+            PuzzlesLib.LOGGER.error("Failed to locate files in {} directory: {}", directory.getName(), e);
         }
     }
 
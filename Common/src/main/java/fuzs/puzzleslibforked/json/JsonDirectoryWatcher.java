@@ -0,0 +1,192 @@
+package fuzs.puzzleslibforked.json;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.gson.JsonElement;
+import fuzs.puzzleslibforked.impl.PuzzlesLib;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * watches a config directory for changes to json files and reloads only the files that have changed
+ * <p>changes are collected until no further events arrive for {@link #DEBOUNCE_MILLIS}, so editors saving a file in multiple steps only cause a single reload
+ */
+final class JsonDirectoryWatcher implements Closeable {
+    /**
+     * time without any further events before changed files are reloaded
+     */
+    private static final long DEBOUNCE_MILLIS = 500L;
+
+    /**
+     * the directory being watched
+     */
+    private final Path root;
+    /**
+     * how many layers of sub-directories are watched
+     */
+    private final int searchLayers;
+    /**
+     * handles every changed file after it has been parsed
+     */
+    private final BiConsumer<File, JsonElement> deserializer;
+    /**
+     * executor <code>deserializer</code> runs on, usually the server or client main thread
+     */
+    private final Executor executor;
+    private final WatchService watchService;
+    /**
+     * directories registered for each watch key
+     */
+    private final Map<WatchKey, Path> directories = Maps.newConcurrentMap();
+
+    /**
+     * @param root the directory to watch
+     * @param searchLayers how many layers of sub-directories are watched
+     * @param deserializer handles every changed file after it has been parsed
+     * @param executor executor <code>deserializer</code> runs on
+     * @throws IOException when the watch service cannot be created
+     */
+    private JsonDirectoryWatcher(Path root, int searchLayers, BiConsumer<File, JsonElement> deserializer, Executor executor) throws IOException {
+        this.root = root;
+        this.searchLayers = searchLayers;
+        this.deserializer = deserializer;
+        this.executor = executor;
+        this.watchService = root.getFileSystem().newWatchService();
+    }
+
+    /**
+     * starts watching <code>root</code> on a new daemon thread
+     *
+     * @param root the directory to watch
+     * @param searchLayers how many layers of sub-directories are watched
+     * @param deserializer handles every changed file after it has been parsed
+     * @param executor executor <code>deserializer</code> runs on
+     * @return the watcher, close to stop watching
+     * @throws IOException when the directory cannot be watched
+     */
+    static JsonDirectoryWatcher start(Path root, int searchLayers, BiConsumer<File, JsonElement> deserializer, Executor executor) throws IOException {
+        JsonDirectoryWatcher watcher = new JsonDirectoryWatcher(root, searchLayers, deserializer, executor);
+        watcher.registerAll(root, null);
+        Thread thread = new Thread(watcher::run, "PuzzlesLib Json Watcher (%s)".formatted(root.getFileName()));
+        thread.setDaemon(true);
+        thread.start();
+        return watcher;
+    }
+
+    /**
+     * registers <code>directory</code> and all sub-directories within the allowed search layers
+     *
+     * @param directory directory to register
+     * @param existingFiles set to add json files already present in registered directories to, null to ignore existing files
+     * @throws IOException when a directory cannot be watched
+     */
+    private void registerAll(Path directory, @Nullable Set<Path> existingFiles) throws IOException {
+        // relativizing the root itself results in an empty path which still has a name count of one
+        int depth = directory.equals(this.root) ? 0 : this.root.relativize(directory).getNameCount();
+        int maxDepth = this.searchLayers - depth;
+        if (maxDepth < 0) return;
+        try (Stream<Path> paths = Files.walk(directory, maxDepth)) {
+            for (Path path : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+                WatchKey key = path.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                this.directories.put(key, path);
+                // files might have been written before the directory was registered, no events are received for those
+                if (existingFiles != null) {
+                    try (Stream<Path> files = Files.list(path)) {
+                        files.filter(file -> Files.isRegularFile(file) && file.getFileName().toString().endsWith(".json")).forEach(existingFiles::add);
+                    }
+                }
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Set<Path> changedFiles = Sets.newTreeSet();
+                this.collectChanges(this.watchService.take(), changedFiles);
+                // keep collecting until the burst of events is over
+                for (WatchKey key = this.watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS); key != null; key = this.watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) {
+                    this.collectChanges(key, changedFiles);
+                }
+                this.reload(changedFiles);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+
+        } catch (RejectedExecutionException e) {
+            // the executor has been shut down without this watcher being closed, e.g. when the server has stopped
+            PuzzlesLib.LOGGER.warn("Stopped watching {} directory as reloads can no longer be run: {}", this.root.getFileName(), e);
+            try {
+                this.close();
+            } catch (IOException ignored) {
+
+            }
+        }
+    }
+
+    /**
+     * @param key key with pending events
+     * @param changedFiles set to add all changed json files to
+     */
+    private void collectChanges(WatchKey key, Set<Path> changedFiles) {
+        Path directory = this.directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (directory == null || event.kind() == StandardWatchEventKinds.OVERFLOW) continue;
+            Path path = directory.resolve((Path) event.context());
+            if (Files.isDirectory(path)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    try {
+                        this.registerAll(path, changedFiles);
+                    } catch (IOException e) {
+                        PuzzlesLib.LOGGER.error("Failed to watch {} directory: {}", path.getFileName(), e);
+                    }
+                }
+            } else if (path.getFileName().toString().endsWith(".json")) {
+                changedFiles.add(path);
+            }
+        }
+        if (!key.reset()) {
+            this.directories.remove(key);
+        }
+    }
+
+    /**
+     * parses all changed files on the watcher thread and hands them to the deserializer on the executor
+     *
+     * @param changedFiles changed files sorted by path
+     * @throws RejectedExecutionException when the executor no longer accepts tasks
+     */
+    private void reload(Set<Path> changedFiles) {
+        Map<File, JsonElement> jsonElements = Maps.newLinkedHashMap();
+        for (Path path : changedFiles) {
+            // file might have been removed again in the meantime
+            if (!Files.isRegularFile(path)) continue;
+            File file = path.toFile();
+            JsonElement jsonElement = JsonConfigFileUtil.parseFile(file);
+            if (jsonElement != null) jsonElements.put(file, jsonElement);
+        }
+        if (jsonElements.isEmpty()) return;
+        this.executor.execute(() -> jsonElements.forEach((File file, JsonElement jsonElement) -> {
+            try {
+                this.deserializer.accept(file, jsonElement);
+            } catch (Exception e) {
+                PuzzlesLib.LOGGER.error("Failed to reload {} in config directory: {}", file.getName(), e);
+            }
+        }));
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.watchService.close();
+    }
+}
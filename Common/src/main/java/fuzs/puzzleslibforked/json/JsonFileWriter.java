@@ -0,0 +1,198 @@
+package fuzs.puzzleslibforked.json;
+
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Striped;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.JsonElement;
+import fuzs.puzzleslibforked.impl.PuzzlesLib;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * writes json files durably via a temporary file that is synced and then moved into place, so a crash never leaves a truncated file behind
+ * <p>asynchronous writes run on a single background thread, repeated saves of the same file within {@link #COALESCE_WINDOW_MILLIS} only write the latest content once
+ */
+final class JsonFileWriter {
+    /**
+     * time a scheduled write waits for further saves of the same file
+     */
+    private static final long COALESCE_WINDOW_MILLIS = 250L;
+    /**
+     * how long pending writes may take when the game shuts down
+     */
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000L;
+    /**
+     * single thread so writes to the same file always happen in order
+     */
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("PuzzlesLib Json Writer").setDaemon(true).build());
+    /**
+     * writes that have been scheduled, but not yet started, by absolute file path
+     */
+    private static final Map<Path, PendingWrite> PENDING_WRITES = Maps.newConcurrentMap();
+    /**
+     * held while taking a pending write and writing a file, so a synchronous write can never be overwritten by older content from a pending write
+     */
+    private static final Striped<Lock> PATH_LOCKS = Striped.lock(16);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(JsonFileWriter::flush, "PuzzlesLib Json Writer Shutdown"));
+    }
+
+    private JsonFileWriter() {
+
+    }
+
+    /**
+     * schedules <code>jsonElement</code> to be written to <code>file</code>, replacing the content of a write to the same file that has not started yet
+     * @param file file to save to
+     * @param jsonElement {@link JsonElement} to save, must not be modified afterwards as serialization happens later on the writer thread
+     * @return future completing with the outcome of the write that includes this content
+     */
+    static CompletableFuture<Boolean> writeAsync(File file, JsonElement jsonElement) {
+        Path path = file.toPath().toAbsolutePath();
+        return PENDING_WRITES.compute(path, (Path key, PendingWrite pendingWrite) -> {
+            if (pendingWrite == null) {
+                pendingWrite = new PendingWrite(jsonElement);
+                EXECUTOR.schedule(() -> runPendingWrite(key), COALESCE_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+            } else {
+                pendingWrite.jsonElement = jsonElement;
+            }
+            return pendingWrite;
+        }).future;
+    }
+
+    /**
+     * writes <code>jsonElement</code> to <code>file</code> right away, a pending write to the same file is superseded and completes with the outcome of this write
+     * @param file file to save to
+     * @param jsonElement {@link JsonElement} to save
+     * @return was this action successful
+     */
+    static boolean writeNow(File file, JsonElement jsonElement) {
+        Path path = file.toPath().toAbsolutePath();
+        Lock lock = PATH_LOCKS.get(path);
+        lock.lock();
+        try {
+            PendingWrite pendingWrite = PENDING_WRITES.remove(path);
+            boolean success = write(path, jsonElement);
+            if (pendingWrite != null) pendingWrite.future.complete(success);
+            return success;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * writes the latest content scheduled for <code>path</code>, nothing happens when another task has already taken care of it
+     * @param path absolute file path
+     */
+    private static void runPendingWrite(Path path) {
+        Lock lock = PATH_LOCKS.get(path);
+        lock.lock();
+        try {
+            PendingWrite pendingWrite = PENDING_WRITES.remove(path);
+            if (pendingWrite != null) {
+                pendingWrite.future.complete(write(path, pendingWrite.jsonElement));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * runs all pending writes right away on the writer thread and waits for them to finish
+     */
+    static void flush() {
+        try {
+            EXECUTOR.submit(() -> PENDING_WRITES.keySet().forEach(JsonFileWriter::runPendingWrite)).get(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            PuzzlesLib.LOGGER.error("Failed to finish pending json file writes: {}", e);
+        }
+    }
+
+    /**
+     * writes <code>jsonElement</code> to a temporary file next to <code>path</code>, syncs it to disk and moves it in place of <code>path</code>
+     * @param path file to save to
+     * @param jsonElement {@link JsonElement} to save
+     * @return was this action successful
+     */
+    private static boolean write(Path path, JsonElement jsonElement) {
+        Path tempPath = null;
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            tempPath = directory.resolve("%s.%s.tmp".formatted(path.getFileName(), Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36)));
+            // unlike Files#createTempFile this uses default permissions, the temporary file becomes the config file after all
+            Files.createFile(tempPath);
+            copyPermissions(path, tempPath);
+            try (FileOutputStream output = new FileOutputStream(tempPath.toFile()); Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                JsonConfigFileUtil.GSON.toJson(jsonElement, writer);
+                writer.flush();
+                output.getFD().sync();
+            }
+            try {
+                Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (Exception e) {
+            PuzzlesLib.LOGGER.error("Failed to create {} in config directory: {}", path.getFileName(), e);
+        } finally {
+            if (tempPath != null) {
+                try {
+                    Files.deleteIfExists(tempPath);
+                } catch (IOException ignored) {
+
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * copies posix permissions and group of an existing file, so saving a file does not change who is allowed to edit it
+     * @param source file to copy from, nothing happens when it does not exist
+     * @param target file to copy to
+     */
+    private static void copyPermissions(Path source, Path target) {
+        PosixFileAttributeView sourceView = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+        PosixFileAttributeView targetView = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (sourceView == null || targetView == null || !Files.exists(source)) return;
+        try {
+            PosixFileAttributes attributes = sourceView.readAttributes();
+            targetView.setPermissions(attributes.permissions());
+            targetView.setGroup(attributes.group());
+        } catch (IOException | SecurityException e) {
+            // not allowed to change group, the file is still written with default permissions
+            PuzzlesLib.LOGGER.debug("Failed to copy permissions of {}: {}", source.getFileName(), e);
+        }
+    }
+
+    /**
+     * a write waiting for the coalescing window to pass
+     */
+    private static class PendingWrite {
+        /**
+         * completed once the content has been written
+         */
+        final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        /**
+         * latest content for this file
+         */
+        volatile JsonElement jsonElement;
+
+        PendingWrite(JsonElement jsonElement) {
+            this.jsonElement = jsonElement;
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package fuzs.puzzleslibforked.json;
 
+import com.google.common.collect.Maps;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -80,4 +88,180 @@ public class JsonSerializationUtil {
         jsonObject.remove(COMMENT_STRING);
         return jsonObject;
     }
+
+    /**
+     * streams all properties of a json config object to <code>visitor</code> without building a {@link JsonElement} tree,
+     * file format and comment entries are not passed on
+     * @param reader reader for the json config file
+     * @param visitor visitor receiving every other property
+     * @return file format or -1 if not found
+     * @throws IOException if reading fails or the json is malformed
+     */
+    public static int visitJsonObject(Reader reader, JsonPropertyVisitor visitor) throws IOException {
+        JsonReader jsonReader = new JsonReader(reader);
+        // same as Gson when reading from a reader, so files load the same no matter how they are read
+        jsonReader.setLenient(true);
+        int fileFormat = -1;
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            if (name.equals(FILE_FORMAT_STRING)) {
+                fileFormat = jsonReader.nextInt();
+            } else if (name.equals(COMMENT_STRING)) {
+                jsonReader.skipValue();
+            } else {
+                visitor.visit(name, jsonReader);
+            }
+        }
+        jsonReader.endObject();
+        assertFullyConsumed(jsonReader);
+        return fileFormat;
+    }
+
+    /**
+     * binds a json config object directly to a typed object via {@link JsonConfigFileUtil#GSON} without building a {@link JsonElement} tree,
+     * file format and comment entries of the root object are skipped while streaming
+     * <p>maps are not supported as Gson's map adapter cannot read ahead, use {@link #readJsonMap} instead
+     * @param reader reader for the json config file
+     * @param type type to bind to
+     * @param <T> object type
+     * @return the deserialized object
+     * @throws IOException if reading fails or the json is malformed
+     */
+    public static <T> T readJsonObject(Reader reader, Class<T> type) throws IOException {
+        if (Map.class.isAssignableFrom(type)) throw new IllegalArgumentException("unable to bind json object to map type %s".formatted(type.getName()));
+        JsonReader jsonReader = new MetaSkippingJsonReader(reader);
+        jsonReader.setLenient(true);
+        if (jsonReader.peek() != JsonToken.BEGIN_OBJECT) throw new IllegalArgumentException("unable to get json object from reader");
+        T object = JsonConfigFileUtil.GSON.getAdapter(type).read(jsonReader);
+        if (object == null) throw new IllegalArgumentException("unable to bind json object to %s".formatted(type.getName()));
+        assertFullyConsumed(jsonReader);
+        return object;
+    }
+
+    /**
+     * binds all properties of a json config object to values of the same type without building a {@link JsonElement} tree,
+     * file format and comment entries are skipped while streaming
+     * @param reader reader for the json config file
+     * @param valueType type of all values
+     * @param <V> value type
+     * @return all properties in file order
+     * @throws IOException if reading fails or the json is malformed
+     */
+    public static <V> Map<String, V> readJsonMap(Reader reader, Class<V> valueType) throws IOException {
+        TypeAdapter<V> adapter = JsonConfigFileUtil.GSON.getAdapter(valueType);
+        Map<String, V> map = Maps.newLinkedHashMap();
+        visitJsonObject(reader, (String name, JsonReader jsonReader) -> map.put(name, adapter.read(jsonReader)));
+        return map;
+    }
+
+    /**
+     * @param jsonReader reader after the root object has been read
+     * @throws IOException if there is anything left besides whitespace and comments
+     */
+    private static void assertFullyConsumed(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() != JsonToken.END_DOCUMENT) throw new MalformedJsonException("json document was not fully consumed");
+    }
+
+    /**
+     * visitor for a single property of a json config object
+     */
+    @FunctionalInterface
+    public interface JsonPropertyVisitor {
+
+        /**
+         * @param name property name
+         * @param reader reader positioned at the property's value, the value must be consumed entirely (use {@link JsonReader#skipValue} for unknown properties)
+         * @throws IOException if reading fails or the json is malformed
+         */
+        void visit(String name, JsonReader reader) throws IOException;
+    }
+
+    /**
+     * a {@link JsonReader} hiding file format and comment properties of the root object,
+     * names are read ahead to decide if a property has to be skipped
+     */
+    private static class MetaSkippingJsonReader extends JsonReader {
+        /**
+         * current nesting depth, the root object is at depth 1
+         */
+        private int depth;
+        /**
+         * name that has been read ahead, but not yet been requested
+         */
+        private String pendingName;
+
+        public MetaSkippingJsonReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public JsonToken peek() throws IOException {
+            if (this.pendingName != null) return JsonToken.NAME;
+            JsonToken token = super.peek();
+            while (this.depth == 1 && token == JsonToken.NAME) {
+                String name = super.nextName();
+                if (!name.equals(FILE_FORMAT_STRING) && !name.equals(COMMENT_STRING)) {
+                    this.pendingName = name;
+                    break;
+                }
+                super.skipValue();
+                token = super.peek();
+            }
+            return token;
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            JsonToken token = this.peek();
+            return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY;
+        }
+
+        @Override
+        public String nextName() throws IOException {
+            this.peek();
+            if (this.pendingName != null) {
+                String name = this.pendingName;
+                this.pendingName = null;
+                return name;
+            }
+            return super.nextName();
+        }
+
+        @Override
+        public void skipValue() throws IOException {
+            this.peek();
+            if (this.pendingName != null) {
+                // skipping a name only consumes the name itself, same as the default implementation
+                this.pendingName = null;
+            } else {
+                super.skipValue();
+            }
+        }
+
+        @Override
+        public void beginObject() throws IOException {
+            super.beginObject();
+            this.depth++;
+        }
+
+        @Override
+        public void endObject() throws IOException {
+            this.peek();
+            super.endObject();
+            this.depth--;
+        }
+
+        @Override
+        public void beginArray() throws IOException {
+            super.beginArray();
+            this.depth++;
+        }
+
+        @Override
+        public void endArray() throws IOException {
+            super.endArray();
+            this.depth--;
+        }
+    }
 }
@@ -0,0 +1,128 @@
+package fuzs.puzzleslibforked.network;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import fuzs.puzzleslibforked.impl.network.S2CBundleMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * collects clientbound messages during a server tick, messages for the same player are sent together as few bundled packets at the end of the tick
+ * <p>every player has a single queue no matter which send method a message came from, so all batched messages arrive in the order they have been sent
+ */
+class MessageBatcher {
+    /**
+     * the handler messages are sent from
+     */
+    private final NetworkHandlerImpl handler;
+    /**
+     * pending batches by receiving player
+     */
+    private final Map<Object, Batch> batches = Maps.newLinkedHashMap();
+
+    /**
+     * @param handler the handler messages are sent from
+     */
+    MessageBatcher(NetworkHandlerImpl handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * queues an already encoded message, allows for encoding a message only once when sending it to multiple targets
+     * <p>later changes to the message instance are not reflected, unless it is too large to be bundled
+     *
+     * @param player    the receiving player, messages for the same player are bundled together
+     * @param sender    sends a finished packet to <code>player</code>
+     * @param message   the message, only sent on its own when too large for a bundle
+     * @param encoded   <code>message</code> encoded via {@link #encode}, is not modified
+     */
+    synchronized void queue(Object player, Consumer<Packet<?>> sender, Message<?> message, ByteBuf encoded) {
+        this.batches.computeIfAbsent(player, o -> new Batch(sender)).add(this.handler, message, encoded);
+    }
+
+    /**
+     * @param message   message to encode
+     * @return          buffer containing message type id and message data, ready to be added to a bundle
+     */
+    ByteBuf encode(Message<?> message) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        NetworkHandlerImpl.MessageType<?> type = this.handler.getMessageType(message.getClass());
+        buf.writeVarInt(type.id());
+        this.handler.encode(type, message, buf);
+        return buf;
+    }
+
+    /**
+     * sends all pending batches, called at the end of every server tick
+     */
+    void flush() {
+        List<Batch> batches;
+        synchronized (this) {
+            if (this.batches.isEmpty()) return;
+            batches = Lists.newArrayList(this.batches.values());
+            this.batches.clear();
+        }
+        for (Batch batch : batches) {
+            batch.send(this.handler);
+        }
+    }
+
+    /**
+     * all bundles pending for a single player
+     */
+    private static class Batch {
+        /**
+         * sends a finished packet to the player
+         */
+        private final Consumer<Packet<?>> sender;
+        /**
+         * bundles for this player, a new one is started whenever the next message no longer fits into the last one
+         * <p>messages too large for any bundle are stored in between, so they keep their order
+         */
+        private final List<Message<?>> messages = Lists.newArrayList();
+
+        /**
+         * @param sender sends a finished packet to the player
+         */
+        Batch(Consumer<Packet<?>> sender) {
+            this.sender = sender;
+        }
+
+        /**
+         * @param handler   the handler messages are sent from
+         * @param message   the message to add
+         * @param encoded   encoded message to add to the current bundle
+         */
+        void add(NetworkHandlerImpl handler, Message<?> message, ByteBuf encoded) {
+            if (!S2CBundleMessage.canBundle(encoded)) {
+                // sent on its own, is encoded again when the batch is sent
+                this.messages.add(message);
+                return;
+            }
+            Message<?> last = this.messages.isEmpty() ? null : this.messages.get(this.messages.size() - 1);
+            S2CBundleMessage bundle;
+            if (last instanceof S2CBundleMessage lastBundle && lastBundle.canAdd(encoded)) {
+                bundle = lastBundle;
+            } else {
+                bundle = new S2CBundleMessage(handler);
+                this.messages.add(bundle);
+            }
+            bundle.add(encoded);
+        }
+
+        /**
+         * @param handler   the handler messages are sent from
+         */
+        void send(NetworkHandlerImpl handler) {
+            for (Message<?> message : this.messages) {
+                this.sender.accept(handler.toClientboundPacket(message));
+            }
+        }
+    }
+}
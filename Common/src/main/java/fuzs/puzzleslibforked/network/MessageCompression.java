@@ -0,0 +1,92 @@
+package fuzs.puzzleslibforked.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * deflates message data above a size threshold, a leading flag tells the receiving side if data has been compressed
+ * <p>compressed data is prefixed with its uncompressed and compressed size, so messages can still be read from shared buffers such as bundles
+ */
+final class MessageCompression {
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(Deflater::new);
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private MessageCompression() {
+
+    }
+
+    /**
+     * writes <code>data</code> to <code>buf</code>, compressed if it reaches <code>threshold</code>
+     *
+     * @param data      uncompressed message data, fully read afterwards
+     * @param buf       buffer to write to
+     * @param threshold size in bytes from which data is compressed
+     */
+    static void write(ByteBuf data, FriendlyByteBuf buf, int threshold) {
+        int size = data.readableBytes();
+        if (size < threshold) {
+            buf.writeBoolean(false);
+            buf.writeBytes(data);
+            return;
+        }
+        byte[] input = new byte[size];
+        data.readBytes(input);
+        Deflater deflater = DEFLATER.get();
+        deflater.setInput(input);
+        deflater.finish();
+        ByteBuf compressed = Unpooled.buffer(size / 2 + 16);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            int length = deflater.deflate(buffer);
+            compressed.writeBytes(buffer, 0, length);
+        }
+        deflater.reset();
+        buf.writeBoolean(true);
+        buf.writeVarInt(size);
+        buf.writeVarInt(compressed.readableBytes());
+        buf.writeBytes(compressed);
+    }
+
+    /**
+     * reads data written by {@link #write}, this runs on the network thread, so all sizes sent by the remote side are checked before allocating anything
+     * <p>the uncompressed size is limited just like the size of fragmented messages, to protect against decompression bombs
+     *
+     * @param buf       buffer to read from, positioned at the compression flag
+     * @param direction direction the message has been sent in
+     * @return          buffer with uncompressed message data
+     */
+    static FriendlyByteBuf read(FriendlyByteBuf buf, MessageDirection direction) {
+        if (!buf.readBoolean()) return buf;
+        int size = buf.readVarInt();
+        int maxSize = MessageFragmenter.getMaxMessageSize(direction);
+        if (size < 0 || size > maxSize) throw new IllegalStateException("Badly compressed message, uncompressed size of %s is out of bounds".formatted(size));
+        int compressedSize = buf.readVarInt();
+        if (compressedSize < 0 || compressedSize > buf.readableBytes()) throw new IllegalStateException("Badly compressed message, compressed size of %s is out of bounds".formatted(compressedSize));
+        byte[] input = new byte[compressedSize];
+        buf.readBytes(input);
+        Inflater inflater = INFLATER.get();
+        inflater.setInput(input);
+        byte[] output = new byte[size];
+        int length = 0;
+        try {
+            while (!inflater.finished()) {
+                // once the output is full, a single spare byte is enough to notice data inflating to more than announced
+                int inflated = length < size ? inflater.inflate(output, length, size - length) : inflater.inflate(new byte[1]);
+                if (length == size && inflated > 0) throw new IllegalStateException("Badly compressed message, inflates to more than %s bytes".formatted(size));
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                length += inflated;
+            }
+            if (length != size || !inflater.finished()) throw new IllegalStateException("Badly compressed message, expected %s bytes, got %s".formatted(size, length));
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Badly compressed message", e);
+        } finally {
+            inflater.reset();
+        }
+        return new FriendlyByteBuf(Unpooled.wrappedBuffer(output));
+    }
+}
@@ -0,0 +1,224 @@
+package fuzs.puzzleslibforked.network;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import fuzs.puzzleslibforked.impl.PuzzlesLib;
+import fuzs.puzzleslibforked.impl.network.C2SFragmentMessage;
+import fuzs.puzzleslibforked.impl.network.FragmentMessage;
+import fuzs.puzzleslibforked.impl.network.S2CFragmentMessage;
+import fuzs.puzzleslibforked.proxy.Proxy;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.chat.TranslatableComponent;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * splits encoded messages into ordered fragments small enough for vanilla's custom payload limits and reassembles them on the receiving side
+ * <p>only a single message may be in flight per connection, so fragments of different messages must never be interleaved,
+ * which is guaranteed as long as fragmented messages are sent from the main thread
+ */
+class MessageFragmenter {
+    /**
+     * fragment size for clientbound messages, vanilla allows custom payloads of up to 1 MiB
+     */
+    static final int CLIENTBOUND_FRAGMENT_SIZE = 1 << 19;
+    /**
+     * fragment size for serverbound messages, vanilla allows custom payloads of up to 32767 bytes
+     */
+    static final int SERVERBOUND_FRAGMENT_SIZE = 30000;
+    /**
+     * maximum size of a reassembled clientbound message
+     */
+    private static final int MAX_CLIENTBOUND_MESSAGE_SIZE = 1 << 24;
+    /**
+     * maximum size of a reassembled serverbound message, this may be buffered for every player, so keep it small
+     */
+    private static final int MAX_SERVERBOUND_MESSAGE_SIZE = 1 << 21;
+    /**
+     * rate limit for serverbound fragments themselves, allows for a few messages of maximum size in a row
+     * <p>dropping single fragments would corrupt the message they belong to, so clients exceeding this are disconnected
+     */
+    private static final MessageOptions SERVERBOUND_OPTIONS = MessageOptions.DEFAULT.withRateLimit(256, 128.0, MessageOptions.RateLimit.Action.DISCONNECT);
+
+    /**
+     * the handler messages are sent from
+     */
+    private final NetworkHandlerImpl handler;
+    /**
+     * id shared by all fragments of a message, so fragments of multiple messages cannot get mixed up
+     */
+    private final AtomicInteger nextSequenceId = new AtomicInteger();
+    /**
+     * state of reassembling fragments by connection
+     * <p>weak keys, so fragments from closed connections disappear on their own
+     */
+    private final Map<Object, Receiver> receivers = new MapMaker().weakKeys().makeMap();
+    private boolean clientboundRegistered;
+    private boolean serverboundRegistered;
+
+    /**
+     * @param handler the handler messages are sent from
+     */
+    MessageFragmenter(NetworkHandlerImpl handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * registers the internal fragment message for <code>direction</code> when it has not been registered yet
+     *
+     * @param direction direction of a message type with fragmentation enabled
+     */
+    void registerFragmentType(MessageDirection direction) {
+        if (direction == MessageDirection.TO_CLIENT && !this.clientboundRegistered) {
+            this.clientboundRegistered = true;
+            this.handler.registerCarrier(S2CFragmentMessage.class, S2CFragmentMessage::new, MessageDirection.TO_CLIENT, MessageOptions.DEFAULT);
+        } else if (direction == MessageDirection.TO_SERVER && !this.serverboundRegistered) {
+            this.serverboundRegistered = true;
+            this.handler.registerCarrier(C2SFragmentMessage.class, C2SFragmentMessage::new, MessageDirection.TO_SERVER, SERVERBOUND_OPTIONS);
+        }
+    }
+
+    /**
+     * encodes a message once and splits it into fragments, messages small enough for a single packet are sent without any fragments
+     *
+     * @param type      type of <code>message</code>
+     * @param message   message to split
+     * @return          packets to be sent in order
+     */
+    NetworkHandlerImpl.EncodedMessage split(NetworkHandlerImpl.MessageType<?> type, Message<?> message) {
+        FriendlyByteBuf buf = this.handler.createPacketBuffer(type);
+        int startIndex = buf.writerIndex();
+        this.handler.encode(type, message, buf);
+        int bytes = buf.writerIndex() - startIndex;
+        int fragmentSize = type.direction() == MessageDirection.TO_CLIENT ? CLIENTBOUND_FRAGMENT_SIZE : SERVERBOUND_FRAGMENT_SIZE;
+        if (bytes <= fragmentSize) return new NetworkHandlerImpl.EncodedMessage(type, List.of(this.handler.toPacket(type, buf)), bytes);
+        // the receiving side would refuse this anyway
+        int maxSize = getMaxMessageSize(type.direction());
+        if (bytes > maxSize) throw new IllegalStateException("Message %s of %s bytes exceeds maximum size of %s bytes".formatted(type.clazz(), bytes, maxSize));
+        // skip any header written by the mod loader
+        buf.readerIndex(startIndex);
+        int sequenceId = this.nextSequenceId.getAndIncrement();
+        List<Packet<?>> packets = Lists.newArrayList();
+        do {
+            byte[] data = new byte[Math.min(fragmentSize, buf.readableBytes())];
+            buf.readBytes(data);
+            boolean last = !buf.isReadable();
+            packets.add(type.direction() == MessageDirection.TO_CLIENT ? this.handler.toClientboundPacket(new S2CFragmentMessage(sequenceId, type.id(), last, data)) : this.handler.toServerboundPacket(new C2SFragmentMessage(sequenceId, type.id(), last, data)));
+        } while (buf.isReadable());
+        return new NetworkHandlerImpl.EncodedMessage(type, packets, bytes);
+    }
+
+    /**
+     * collects a received fragment on the network thread, the message is decoded once the last fragment has arrived
+     * <p>fragments must arrive in order and for a single message at a time, clients violating this or exceeding the maximum message size are disconnected
+     * <p>the rate limit of the message type is checked once for the whole message when the first fragment arrives, the rest of a dropped message is skipped
+     *
+     * @param direction direction the fragment has been sent in
+     * @param fragment  the received fragment
+     * @param sender    player who sent the fragment, null on the client
+     * @return          handler for the reassembled message to run on the main thread, null while fragments are still missing
+     */
+    @Nullable
+    BiConsumer<Player, Object> accept(MessageDirection direction, FragmentMessage<?> fragment, @Nullable ServerPlayer sender) {
+        Object connection = sender != null ? sender.connection.connection : Proxy.INSTANCE.getClientConnection();
+        Receiver receiver = this.receivers.computeIfAbsent(connection, o -> new Receiver());
+        // everything is dropped until the disconnect has gone through
+        if (receiver.failed) return null;
+        if (receiver.pending == null) {
+            NetworkHandlerImpl.MessageType<?> type = this.handler.findMessageType(fragment.getTypeId());
+            // don't let the remote smuggle in messages meant for the other side
+            if (type == null || type.direction() != direction || !type.options().fragmented()) {
+                return this.reject(receiver, sender, "Received fragments for message type %s which cannot be sent fragmented in direction %s".formatted(fragment.getTypeId(), direction));
+            }
+            // only the message counts against the rate limit of its type, not every single fragment
+            boolean dropped = sender != null && !this.handler.tryReceive(type, sender);
+            receiver.pending = new PendingMessage(fragment.getSequenceId(), type, dropped);
+        } else if (receiver.pending.sequenceId != fragment.getSequenceId() || receiver.pending.type.id() != fragment.getTypeId()) {
+            return this.reject(receiver, sender, "Received fragment of message %s while message %s is still incomplete".formatted(fragment.getSequenceId(), receiver.pending.sequenceId));
+        }
+        PendingMessage pending = receiver.pending;
+        int maxSize = getMaxMessageSize(direction);
+        pending.size += fragment.getData().length;
+        if (pending.size > maxSize) {
+            return this.reject(receiver, sender, "Fragmented message %s exceeds maximum size of %s bytes".formatted(pending.type.clazz().getName(), maxSize));
+        }
+        if (pending.buf != null) pending.buf.writeBytes(fragment.getData());
+        if (!fragment.isLast()) return null;
+        receiver.pending = null;
+        if (pending.buf == null) return null;
+        return this.handler.toMessageHandler(pending.type, new FriendlyByteBuf(pending.buf));
+    }
+
+    /**
+     * stops accepting fragments from a connection, the client is disconnected, while on the client side an exception is thrown
+     *
+     * @param receiver  state of the connection
+     * @param sender    player who sent the invalid fragment, null on the client
+     * @param reason    what is wrong with the fragment
+     * @return          always null as there is nothing to handle
+     */
+    @Nullable
+    private BiConsumer<Player, Object> reject(Receiver receiver, @Nullable ServerPlayer sender, String reason) {
+        receiver.pending = null;
+        if (sender == null) throw new IllegalStateException(reason);
+        receiver.failed = true;
+        PuzzlesLib.LOGGER.warn("Disconnecting {}: {}", sender.getGameProfile().getName(), reason);
+        sender.server.execute(() -> sender.connection.disconnect(new TranslatableComponent("disconnect.genericReason", "Invalid message fragments")));
+        return null;
+    }
+
+    /**
+     * @param direction direction the message is sent in
+     * @return          maximum size of a reassembled or decompressed message
+     */
+    static int getMaxMessageSize(MessageDirection direction) {
+        return direction == MessageDirection.TO_CLIENT ? MAX_CLIENTBOUND_MESSAGE_SIZE : MAX_SERVERBOUND_MESSAGE_SIZE;
+    }
+
+    /**
+     * fragments received so far from a single connection
+     */
+    private static class Receiver {
+        /**
+         * the single message currently being reassembled
+         */
+        @Nullable
+        PendingMessage pending;
+        /**
+         * has an invalid fragment been received, the connection is about to be closed
+         */
+        boolean failed;
+    }
+
+    /**
+     * a message still missing some of its fragments
+     */
+    private static class PendingMessage {
+        final int sequenceId;
+        final NetworkHandlerImpl.MessageType<?> type;
+        /**
+         * received data, null when the message has been dropped for exceeding its rate limit, so the remaining fragments are only checked
+         */
+        @Nullable
+        final ByteBuf buf;
+        /**
+         * amount of bytes received so far
+         */
+        int size;
+
+        PendingMessage(int sequenceId, NetworkHandlerImpl.MessageType<?> type, boolean dropped) {
+            this.sequenceId = sequenceId;
+            this.type = type;
+            this.buf = dropped ? null : Unpooled.buffer();
+        }
+    }
+}
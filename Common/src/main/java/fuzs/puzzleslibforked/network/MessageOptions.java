@@ -0,0 +1,101 @@
+package fuzs.puzzleslibforked.network;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * additional settings for a message type, passed to {@link NetworkHandler#register(Class, java.util.function.Supplier, MessageDirection, MessageOptions)}
+ * <p>instances are immutable, start from {@link #DEFAULT} and chain the <code>with</code> methods, both sides must register a message type with the same options
+ *
+ * @param loopback              skip encoding and decoding when sender and receiver share the same game instance (singleplayer and the LAN host),
+ *                              the message instance itself is handed to the receiving side, so it must not be modified after sending,
+ *                              see {@link #withLoopback} for which send methods support this and how it affects ordering
+ * @param compressionThreshold  encoded size in bytes from which messages are compressed, -1 to disable compression
+ * @param fragmented            split messages into ordered fragments when sent via {@link NetworkHandler}'s send methods, so they may exceed vanilla's custom payload size limits
+ * @param rateLimit             limits how many messages of this type a single player may send to the server, <code>null</code> for no limit
+ */
+public record MessageOptions(boolean loopback, int compressionThreshold, boolean fragmented, @Nullable RateLimit rateLimit) {
+    /**
+     * options used when none are specified
+     */
+    public static final MessageOptions DEFAULT = new MessageOptions(false, -1, false, null);
+
+    public MessageOptions {
+        if (compressionThreshold < -1) throw new IllegalArgumentException("Compression threshold must be -1 or positive, was %s".formatted(compressionThreshold));
+    }
+
+    /**
+     * only {@link NetworkHandler#sendTo}, {@link NetworkHandler#sendToAllExcept} and {@link NetworkHandler#sendToServer} support loopback,
+     * all other send methods broadcast a single packet and always encode the message, even for the host
+     * <p>messages sent via loopback are handed to the receiving game instance right away, they are never batched and no longer keep their order relative to packets of any other message type,
+     * so only enable this for messages that do not depend on other packets arriving first, such as self-contained state updates
+     *
+     * @param loopback  pass the message instance directly to the receiving side on in-memory connections
+     * @return          new options with loopback set
+     */
+    public MessageOptions withLoopback(boolean loopback) {
+        return new MessageOptions(loopback, this.compressionThreshold, this.fragmented, this.rateLimit);
+    }
+
+    /**
+     * @param compressionThreshold  encoded size in bytes from which messages are deflated, -1 to disable compression
+     * @return                      new options with compression threshold set
+     */
+    public MessageOptions withCompression(int compressionThreshold) {
+        return new MessageOptions(this.loopback, compressionThreshold, this.fragmented, this.rateLimit);
+    }
+
+    /**
+     * @param fragmented    split messages into fragments that are reassembled on the receiving side
+     * @return              new options with fragmentation set
+     */
+    public MessageOptions withFragmentation(boolean fragmented) {
+        return new MessageOptions(this.loopback, this.compressionThreshold, fragmented, this.rateLimit);
+    }
+
+    /**
+     * @param capacity      how many messages a player may send in a single burst
+     * @param refillRate    how many messages per second a player may send on average
+     * @param action        what happens to a player exceeding the limit
+     * @return              new options with rate limit set, only supported for serverbound messages
+     */
+    public MessageOptions withRateLimit(int capacity, double refillRate, RateLimit.Action action) {
+        return new MessageOptions(this.loopback, this.compressionThreshold, this.fragmented, new RateLimit(capacity, refillRate, action));
+    }
+
+    /**
+     * @return is compression enabled
+     */
+    public boolean compressed() {
+        return this.compressionThreshold != -1;
+    }
+
+    /**
+     * token bucket settings for a serverbound message type, tracked separately for every player
+     * <p>checked on the network thread before a message is queued for the main thread, so flooding clients cannot stall the server tick
+     *
+     * @param capacity      maximum amount of tokens, every received message takes one token
+     * @param refillRate    tokens added per second
+     * @param action        what happens when a message arrives while no token is left
+     */
+    public record RateLimit(int capacity, double refillRate, Action action) {
+
+        public RateLimit {
+            if (capacity <= 0) throw new IllegalArgumentException("Rate limit capacity must be positive, was %s".formatted(capacity));
+            if (refillRate <= 0.0) throw new IllegalArgumentException("Rate limit refill rate must be positive, was %s".formatted(refillRate));
+        }
+
+        /**
+         * what happens to messages exceeding a rate limit
+         */
+        public enum Action {
+            /**
+             * silently drop the message
+             */
+            DROP,
+            /**
+             * drop the message and disconnect the player
+             */
+            DISCONNECT
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package fuzs.puzzleslibforked.network;
+
+import com.google.common.collect.MapMaker;
+import fuzs.puzzleslibforked.impl.PuzzlesLib;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.network.chat.TranslatableComponent;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.Map;
+
+/**
+ * enforces {@link MessageOptions.RateLimit}s for serverbound messages using a token bucket per player and message type
+ * <p>meant to be called from the network thread, before any work is queued for the main thread
+ */
+class MessageRateLimiter {
+    /**
+     * buckets for every player that has sent a rate limited message
+     * <p>weak keys, so players that have left disappear on their own
+     */
+    private final Map<ServerPlayer, PlayerBuckets> players = new MapMaker().weakKeys().makeMap();
+
+    /**
+     * takes a token from the bucket of <code>player</code> for <code>type</code>
+     *
+     * @param type      type of the received message
+     * @param player    player who sent the message
+     * @return          may the message be processed, otherwise it must be dropped
+     */
+    boolean tryAcquire(NetworkHandlerImpl.MessageType<?> type, ServerPlayer player) {
+        MessageOptions.RateLimit rateLimit = type.options().rateLimit();
+        if (rateLimit == null) return true;
+        PlayerBuckets buckets = this.players.computeIfAbsent(player, o -> new PlayerBuckets());
+        synchronized (buckets) {
+            // everything is dropped until the disconnect has gone through
+            if (buckets.disconnecting) return false;
+            TokenBucket bucket = buckets.buckets.computeIfAbsent(type.id(), id -> new TokenBucket(rateLimit.capacity()));
+            if (bucket.tryAcquire(rateLimit)) return true;
+            if (rateLimit.action() == MessageOptions.RateLimit.Action.DISCONNECT) {
+                buckets.disconnecting = true;
+                PuzzlesLib.LOGGER.warn("Disconnecting {} for exceeding rate limit of message {}", player.getGameProfile().getName(), type.clazz().getName());
+                player.server.execute(() -> player.connection.disconnect(new TranslatableComponent("disconnect.exceeded_packet_rate")));
+            } else if (!bucket.warned) {
+                bucket.warned = true;
+                PuzzlesLib.LOGGER.warn("Dropping messages {} from {} for exceeding rate limit", type.clazz().getName(), player.getGameProfile().getName());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * all buckets of a single player
+     */
+    private static class PlayerBuckets {
+        final Int2ObjectMap<TokenBucket> buckets = new Int2ObjectOpenHashMap<>();
+        boolean disconnecting;
+    }
+
+    /**
+     * tokens are refilled lazily whenever a message arrives
+     */
+    private static class TokenBucket {
+        double tokens;
+        long lastRefill = System.nanoTime();
+        /**
+         * only log dropping messages once per player and message type to avoid spamming the log
+         */
+        boolean warned;
+
+        TokenBucket(int capacity) {
+            this.tokens = capacity;
+        }
+
+        boolean tryAcquire(MessageOptions.RateLimit rateLimit) {
+            long now = System.nanoTime();
+            this.tokens = Math.min(rateLimit.capacity(), this.tokens + (now - this.lastRefill) / 1.0E9 * rateLimit.refillRate());
+            this.lastRefill = now;
+            if (this.tokens < 1.0) return false;
+            this.tokens--;
+            return true;
+        }
+    }
+}
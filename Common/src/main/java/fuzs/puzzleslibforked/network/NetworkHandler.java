@@ -27,7 +27,39 @@ public interface NetworkHandler {
      * @param direction         side this message is to be executed at
      * @param <T>               message implementation
      */
-    <T extends Message<T>> void register(Class<? extends T> clazz, Supplier<T> supplier, MessageDirection direction);
+    default <T extends Message<T>> void register(Class<? extends T> clazz, Supplier<T> supplier, MessageDirection direction) {
+        this.register(clazz, supplier, direction, MessageOptions.DEFAULT);
+    }
+
+    /**
+     * register a message for a side with additional options
+     *
+     * @param clazz             message class type
+     * @param supplier          supplier for message (called when receiving at executing end)
+     * @param direction         side this message is to be executed at
+     * @param options           additional settings for this message type
+     * @param <T>               message implementation
+     */
+    <T extends Message<T>> void register(Class<? extends T> clazz, Supplier<T> supplier, MessageDirection direction, MessageOptions options);
+
+    /**
+     * enables batching for messages sent from the server to a single client or to all clients tracking an entity,
+     * such messages are queued and sent bundled together in as few packets as possible at the end of the current server tick
+     * <p>registers an internal message, so must be called on both sides at the same point during message registration, ideally right after creating this handler
+     * <p>every player has a single queue, so batched messages for a player arrive in the order they have been sent, no matter if sent via {@link #sendTo},
+     * {@link #sendToAllExcept}, {@link #sendToAllTracking} or {@link #sendToAllTrackingAndSelf}
+     * <p>batched messages arrive after any packets sent directly during the same tick, don't enable batching when relative ordering to other packets matters
+     *
+     * @return this handler
+     */
+    NetworkHandler enableBatching();
+
+    /**
+     * traffic statistics for all messages registered to this handler, only recorded while {@link NetworkMetrics#isEnabled()}
+     *
+     * @return metrics for this handler
+     */
+    NetworkMetrics getMetrics();
 
     /**
      * creates a packet heading to the server side
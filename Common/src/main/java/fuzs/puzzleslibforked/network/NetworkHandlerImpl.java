@@ -0,0 +1,612 @@
+package fuzs.puzzleslibforked.network;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import fuzs.puzzleslibforked.core.CommonAbstractions;
+import fuzs.puzzleslibforked.impl.network.FragmentMessage;
+import fuzs.puzzleslibforked.impl.network.S2CBundleMessage;
+import fuzs.puzzleslibforked.proxy.Proxy;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.Connection;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.players.PlayerList;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * just a very basic template for implementing {@link NetworkHandler} in the common project,
+ * keeps track of all registered message types and takes care of batching, compressing and fragmenting messages if enabled
+ */
+public abstract class NetworkHandlerImpl implements NetworkHandler {
+    /**
+     * registered message types by message class
+     */
+    private final Map<Class<?>, MessageType<?>> typesByClass = Maps.newIdentityHashMap();
+    /**
+     * registered message types, the index of a type is equal to its id
+     */
+    private final List<MessageType<?>> typesById = Lists.newArrayList();
+    /**
+     * queues clientbound messages until the end of the current server tick, null as long as batching is disabled
+     */
+    @Nullable
+    private MessageBatcher batcher;
+    /**
+     * traffic statistics for all message types
+     */
+    private final NetworkMetrics metrics;
+    /**
+     * splits messages into fragments and reassembles them, fragment message types are only registered once they are needed
+     */
+    private final MessageFragmenter fragmenter = new MessageFragmenter(this);
+    /**
+     * enforces rate limits of serverbound message types
+     */
+    private final MessageRateLimiter rateLimiter = new MessageRateLimiter();
+
+    /**
+     * @param modId mod id this handler belongs to
+     */
+    protected NetworkHandlerImpl(String modId) {
+        this.metrics = new NetworkMetrics(modId);
+    }
+
+    @Override
+    public <T extends Message<T>> void register(Class<? extends T> clazz, Supplier<T> supplier, MessageDirection direction, MessageOptions options) {
+        this.register(clazz, supplier, direction, options, false);
+    }
+
+    /**
+     * registers an internal message only carrying other messages, such as bundles and fragments
+     *
+     * @param clazz     message class
+     * @param supplier  factory for creating an empty message when receiving
+     * @param direction direction this message is sent in
+     * @param options   additional settings for this message type
+     * @param <T>       message implementation
+     */
+    <T extends Message<T>> void registerCarrier(Class<? extends T> clazz, Supplier<T> supplier, MessageDirection direction, MessageOptions options) {
+        this.register(clazz, supplier, direction, options, true);
+    }
+
+    /**
+     * @param clazz     message class
+     * @param supplier  factory for creating an empty message when receiving
+     * @param direction direction this message is sent in
+     * @param options   additional settings for this message type
+     * @param carrier   does this message type only carry other messages, so its bytes are not recorded in metrics
+     * @param <T>       message implementation
+     */
+    private <T extends Message<T>> void register(Class<? extends T> clazz, Supplier<T> supplier, MessageDirection direction, MessageOptions options, boolean carrier) {
+        if (this.typesByClass.containsKey(clazz)) throw new IllegalStateException("Duplicate message registration for %s".formatted(clazz));
+        if (options.rateLimit() != null && direction != MessageDirection.TO_SERVER) throw new IllegalArgumentException("Rate limit set for message %s, but only serverbound messages can be rate limited".formatted(clazz));
+        // happens at the same point on both sides, so ids still match
+        if (options.fragmented()) this.fragmenter.registerFragmentType(direction);
+        MessageType<T> type = new MessageType<>(this.typesById.size(), clazz, supplier, direction, options);
+        this.typesByClass.put(clazz, type);
+        this.typesById.add(type);
+        this.metrics.register(type, carrier);
+        this.registerMessageType(type);
+    }
+
+    /**
+     * registers a message type with the mod loader specific network channel
+     *
+     * @param type  the message type, its id is to be used as discriminator
+     * @param <T>   message implementation
+     */
+    protected abstract <T extends Message<T>> void registerMessageType(MessageType<T> type);
+
+    /**
+     * creates a buffer for a packet of the mod loader specific network channel, a header such as a discriminator may already be written to it
+     *
+     * @param type  the message type the packet is created for
+     * @return      buffer for writing message data to
+     */
+    protected abstract FriendlyByteBuf createPacketBuffer(MessageType<?> type);
+
+    /**
+     * @param type  type of the message contained in <code>buf</code>
+     * @param buf   buffer created via {@link #createPacketBuffer} with the message already written to it
+     * @return      packet for the mod loader specific network channel
+     */
+    protected abstract Packet<?> toServerboundPacket(MessageType<?> type, FriendlyByteBuf buf);
+
+    /**
+     * @param type  type of the message contained in <code>buf</code>
+     * @param buf   buffer created via {@link #createPacketBuffer} with the message already written to it
+     * @return      packet for the mod loader specific network channel
+     */
+    protected abstract Packet<?> toClientboundPacket(MessageType<?> type, FriendlyByteBuf buf);
+
+    /**
+     * @param clazz message class
+     * @return      registered type for this message class
+     */
+    @ApiStatus.Internal
+    public MessageType<?> getMessageType(Class<?> clazz) {
+        MessageType<?> type = this.typesByClass.get(clazz);
+        if (type == null) throw new IllegalArgumentException("No message type registered for %s".formatted(clazz));
+        return type;
+    }
+
+    /**
+     * @param id    message type id
+     * @return      registered type for this id
+     */
+    @ApiStatus.Internal
+    public MessageType<?> getMessageType(int id) {
+        MessageType<?> type = this.findMessageType(id);
+        if (type == null) throw new IllegalArgumentException("No message type registered for id %s".formatted(id));
+        return type;
+    }
+
+    /**
+     * @param id    message type id, possibly received from the remote
+     * @return      registered type for this id, null when there is none
+     */
+    @Nullable
+    MessageType<?> findMessageType(int id) {
+        return id >= 0 && id < this.typesById.size() ? this.typesById.get(id) : null;
+    }
+
+    @Override
+    public NetworkMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * checks the rate limit of a serverbound message type, to be called on the network thread before anything is queued for the main thread
+     * <p>players exceeding a limit set to {@link MessageOptions.RateLimit.Action#DISCONNECT} are disconnected
+     *
+     * @param type      type of the received message
+     * @param player    player who sent the message
+     * @return          may the message be processed, otherwise it must be dropped
+     */
+    @ApiStatus.Internal
+    public boolean tryReceive(MessageType<?> type, ServerPlayer player) {
+        return this.rateLimiter.tryAcquire(type, player);
+    }
+
+    /**
+     * writes a message to a buffer, recording metrics if enabled
+     *
+     * @param type      type of <code>message</code>
+     * @param message   message to write
+     * @param buf       buffer to write to
+     */
+    @ApiStatus.Internal
+    public void encode(MessageType<?> type, Message<?> message, FriendlyByteBuf buf) {
+        if (!NetworkMetrics.isEnabled()) {
+            this.write(type, message, buf);
+            return;
+        }
+        long startTime = System.nanoTime();
+        int startIndex = buf.writerIndex();
+        this.write(type, message, buf);
+        this.metrics.recordEncode(type.id(), buf.writerIndex() - startIndex, System.nanoTime() - startTime);
+    }
+
+    /**
+     * writes a message to a buffer, compressing it when the message type has compression enabled
+     *
+     * @param type      type of <code>message</code>
+     * @param message   message to write
+     * @param buf       buffer to write to
+     */
+    private void write(MessageType<?> type, Message<?> message, FriendlyByteBuf buf) {
+        if (type.options().compressed()) {
+            FriendlyByteBuf data = new FriendlyByteBuf(Unpooled.buffer());
+            message.write(data);
+            MessageCompression.write(data, buf, type.options().compressionThreshold());
+        } else {
+            message.write(buf);
+        }
+    }
+
+    /**
+     * creates a new message and reads it from a buffer, recording metrics if enabled
+     *
+     * @param type  type of message to create
+     * @param buf   buffer to read from
+     * @param <T>   message implementation
+     * @return      the read message
+     */
+    @ApiStatus.Internal
+    public <T extends Message<T>> T decode(MessageType<T> type, FriendlyByteBuf buf) {
+        T message = type.factory().get();
+        if (!NetworkMetrics.isEnabled()) {
+            message.read(type.options().compressed() ? MessageCompression.read(buf, type.direction()) : buf);
+            return message;
+        }
+        long startTime = System.nanoTime();
+        int startIndex = buf.readerIndex();
+        message.read(type.options().compressed() ? MessageCompression.read(buf, type.direction()) : buf);
+        this.metrics.recordDecode(type.id(), buf.readerIndex() - startIndex, System.nanoTime() - startTime);
+        return message;
+    }
+
+    /**
+     * handles a received message, recording metrics if enabled
+     *
+     * @param type          type of <code>message</code>
+     * @param message       message to handle
+     * @param player        server or client player
+     * @param gameInstance  server or client instance
+     */
+    @ApiStatus.Internal
+    public void handle(MessageType<?> type, Message<?> message, Player player, Object gameInstance) {
+        if (!NetworkMetrics.isEnabled()) {
+            message.handle(player, gameInstance);
+            return;
+        }
+        long startTime = System.nanoTime();
+        message.handle(player, gameInstance);
+        this.metrics.recordHandle(type.id(), System.nanoTime() - startTime);
+    }
+
+    @Override
+    public NetworkHandler enableBatching() {
+        if (this.batcher != null) throw new IllegalStateException("Message batching has already been enabled");
+        MessageBatcher batcher = new MessageBatcher(this);
+        this.batcher = batcher;
+        this.registerCarrier(S2CBundleMessage.class, () -> new S2CBundleMessage(this), MessageDirection.TO_CLIENT, MessageOptions.DEFAULT);
+        CommonAbstractions.INSTANCE.registerEndServerTick(server -> batcher.flush());
+        return this;
+    }
+
+    /**
+     * processes a decoded message on the network thread, fragments are collected right away, so only complete messages are ever queued for the main thread
+     *
+     * @param type      type of the received message
+     * @param message   the received message
+     * @param sender    player who sent the message, null on the client
+     * @return          handler to run on the main thread, null when there is nothing to handle
+     */
+    @ApiStatus.Internal
+    @Nullable
+    public BiConsumer<Player, Object> receive(MessageType<?> type, Message<?> message, @Nullable ServerPlayer sender) {
+        if (message instanceof FragmentMessage<?> fragment) return this.fragmenter.accept(type.direction(), fragment, sender);
+        return this.toMessageHandler(type, message);
+    }
+
+    /**
+     * @param type  type of the message contained in <code>buf</code>
+     * @param buf   buffer to decode the message from
+     * @return      handler for the decoded message to run on the main thread
+     */
+    BiConsumer<Player, Object> toMessageHandler(MessageType<?> type, FriendlyByteBuf buf) {
+        return this.toMessageHandler(type, this.decode(type, buf));
+    }
+
+    /**
+     * @param type      type of <code>message</code>
+     * @param message   the received message
+     * @return          handler for <code>message</code> to run on the main thread
+     */
+    private BiConsumer<Player, Object> toMessageHandler(MessageType<?> type, Message<?> message) {
+        return (Player player, Object gameInstance) -> this.handle(type, message, player, gameInstance);
+    }
+
+    @Override
+    public Packet<?> toServerboundPacket(Message<?> message) {
+        return this.encodePacket(this.getMessageType(message.getClass(), MessageDirection.TO_SERVER), message).packets().get(0);
+    }
+
+    @Override
+    public Packet<?> toClientboundPacket(Message<?> message) {
+        return this.encodePacket(this.getMessageType(message.getClass(), MessageDirection.TO_CLIENT), message).packets().get(0);
+    }
+
+    /**
+     * @param clazz     message class
+     * @param direction direction the message is about to be sent in
+     * @return          registered type for this message class
+     */
+    private MessageType<?> getMessageType(Class<?> clazz, MessageDirection direction) {
+        MessageType<?> type = this.getMessageType(clazz);
+        if (type.direction() != direction) throw new IllegalStateException("Attempted sending message to wrong side, expected %s, was %s".formatted(direction, type.direction()));
+        return type;
+    }
+
+    /**
+     * encodes a message into a single packet for the direction of its type
+     *
+     * @param type      type of <code>message</code>
+     * @param message   message to create a packet from
+     * @return          the packet together with the encoded size of the message
+     */
+    private EncodedMessage encodePacket(MessageType<?> type, Message<?> message) {
+        FriendlyByteBuf buf = this.createPacketBuffer(type);
+        int startIndex = buf.writerIndex();
+        this.encode(type, message, buf);
+        int bytes = buf.writerIndex() - startIndex;
+        return new EncodedMessage(type, List.of(this.toPacket(type, buf)), bytes);
+    }
+
+    /**
+     * @param type  type of the message contained in <code>buf</code>
+     * @param buf   buffer created via {@link #createPacketBuffer} with the message already written to it
+     * @return      packet for the direction of <code>type</code>
+     */
+    Packet<?> toPacket(MessageType<?> type, FriendlyByteBuf buf) {
+        return type.direction() == MessageDirection.TO_CLIENT ? this.toClientboundPacket(type, buf) : this.toServerboundPacket(type, buf);
+    }
+
+    /**
+     * @param message   message to create packets from
+     * @param direction direction the message is about to be sent in
+     * @return          a single packet, or multiple packets containing fragments if the message type has fragmentation enabled
+     */
+    private EncodedMessage encodePackets(Message<?> message, MessageDirection direction) {
+        MessageType<?> type = this.getMessageType(message.getClass(), direction);
+        if (!type.options().fragmented()) return this.encodePacket(type, message);
+        return this.fragmenter.split(type, message);
+    }
+
+    /**
+     * records a sent message in metrics if enabled
+     *
+     * @param type          type of the sent message
+     * @param bytes         encoded size of the message
+     * @param recipients    amount of players or servers the message is sent to, only computed when metrics are enabled
+     */
+    private void recordSend(MessageType<?> type, int bytes, IntSupplier recipients) {
+        if (NetworkMetrics.isEnabled()) this.metrics.recordSend(type.id(), bytes, recipients.getAsInt());
+    }
+
+    /**
+     * @param message   message to send
+     * @return          can <code>message</code> be added to a bundle, fragmented messages are sent on their own
+     */
+    private boolean canBatch(Message<?> message) {
+        return this.batcher != null && !this.getMessageType(message.getClass()).options().fragmented();
+    }
+
+    /**
+     * encodes a message for adding it to bundles, the message is recorded as sent to <code>recipients</code>
+     *
+     * @param message       message to encode
+     * @param recipients    amount of players the message is sent to
+     * @return              buffer containing message type id and message data
+     */
+    private ByteBuf encodeForBatch(Message<?> message, IntSupplier recipients) {
+        ByteBuf encoded = this.batcher.encode(message);
+        this.recordSend(this.getMessageType(message.getClass()), encoded.readableBytes(), recipients);
+        return encoded;
+    }
+
+    @Override
+    public void sendToServer(Message<?> message) {
+        if (!this.tryLoopbackToServer(message)) {
+            EncodedMessage encoded = this.encodePackets(message, MessageDirection.TO_SERVER);
+            Connection connection = Proxy.INSTANCE.getClientConnection();
+            for (Packet<?> packet : encoded.packets()) {
+                connection.send(packet);
+            }
+            this.recordSend(encoded.type(), encoded.bytes(), () -> 1);
+        }
+    }
+
+    @Override
+    public void sendTo(Message<?> message, ServerPlayer player) {
+        if (this.tryLoopbackToClient(message, player)) return;
+        if (this.canBatch(message)) {
+            this.batcher.queue(player, packet -> player.connection.send(packet), message, this.encodeForBatch(message, () -> 1));
+        } else {
+            EncodedMessage encoded = this.encodePackets(message, MessageDirection.TO_CLIENT);
+            for (Packet<?> packet : encoded.packets()) {
+                player.connection.send(packet);
+            }
+            this.recordSend(encoded.type(), encoded.bytes(), () -> 1);
+        }
+    }
+
+    @Override
+    public void sendToAll(Message<?> message) {
+        EncodedMessage encoded = this.encodePackets(message, MessageDirection.TO_CLIENT);
+        PlayerList playerList = Proxy.INSTANCE.getGameServer().getPlayerList();
+        for (Packet<?> packet : encoded.packets()) {
+            playerList.broadcastAll(packet);
+        }
+        this.recordSend(encoded.type(), encoded.bytes(), playerList::getPlayerCount);
+    }
+
+    @Override
+    public void sendToAllExcept(Message<?> message, ServerPlayer exclude) {
+        // encode only once no matter the amount of players
+        if (this.canBatch(message)) {
+            ByteBuf encoded = this.batcher.encode(message);
+            int recipients = 0;
+            for (ServerPlayer player : Proxy.INSTANCE.getGameServer().getPlayerList().getPlayers()) {
+                if (player != exclude && !this.tryLoopbackToClient(message, player)) {
+                    this.batcher.queue(player, packet -> player.connection.send(packet), message, encoded);
+                    recipients++;
+                }
+            }
+            int sentTo = recipients;
+            this.recordSend(this.getMessageType(message.getClass()), encoded.readableBytes(), () -> sentTo);
+        } else {
+            EncodedMessage encoded = this.encodePackets(message, MessageDirection.TO_CLIENT);
+            int recipients = 0;
+            for (ServerPlayer player : Proxy.INSTANCE.getGameServer().getPlayerList().getPlayers()) {
+                if (player != exclude && !this.tryLoopbackToClient(message, player)) {
+                    encoded.packets().forEach(player.connection::send);
+                    recipients++;
+                }
+            }
+            int sentTo = recipients;
+            this.recordSend(encoded.type(), encoded.bytes(), () -> sentTo);
+        }
+    }
+
+    @Override
+    public void sendToAllNearExcept(Message<?> message, @Nullable ServerPlayer exclude, double posX, double posY, double posZ, double distance, Level level) {
+        EncodedMessage encoded = this.encodePackets(message, MessageDirection.TO_CLIENT);
+        PlayerList playerList = Proxy.INSTANCE.getGameServer().getPlayerList();
+        for (Packet<?> packet : encoded.packets()) {
+            playerList.broadcast(exclude, posX, posY, posZ, distance, level.dimension(), packet);
+        }
+        this.recordSend(encoded.type(), encoded.bytes(), () -> {
+            int recipients = 0;
+            for (ServerPlayer player : playerList.getPlayers()) {
+                // same conditions as in PlayerList::broadcast
+                if (player == exclude || player.level.dimension() != level.dimension()) continue;
+                double deltaX = posX - player.getX();
+                double deltaY = posY - player.getY();
+                double deltaZ = posZ - player.getZ();
+                if (deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ < distance * distance) recipients++;
+            }
+            return recipients;
+        });
+    }
+
+    @Override
+    public void sendToAllTracking(Message<?> message, Entity entity) {
+        if (this.canBatch(message)) {
+            this.queueForTracking(message, entity, false);
+        } else {
+            ServerChunkCache chunkSource = (ServerChunkCache) entity.getCommandSenderWorld().getChunkSource();
+            EncodedMessage encoded = this.encodePackets(message, MessageDirection.TO_CLIENT);
+            for (Packet<?> packet : encoded.packets()) {
+                chunkSource.broadcast(entity, packet);
+            }
+            this.recordSend(encoded.type(), encoded.bytes(), () -> getTrackingPlayers(entity, false));
+        }
+    }
+
+    @Override
+    public void sendToAllTrackingAndSelf(Message<?> message, Entity entity) {
+        if (this.canBatch(message)) {
+            this.queueForTracking(message, entity, true);
+        } else {
+            ServerChunkCache chunkSource = (ServerChunkCache) entity.getCommandSenderWorld().getChunkSource();
+            EncodedMessage encoded = this.encodePackets(message, MessageDirection.TO_CLIENT);
+            for (Packet<?> packet : encoded.packets()) {
+                chunkSource.broadcastAndSend(entity, packet);
+            }
+            this.recordSend(encoded.type(), encoded.bytes(), () -> getTrackingPlayers(entity, true));
+        }
+    }
+
+    @Override
+    public void sendToDimension(Message<?> message, ResourceKey<Level> dimension) {
+        EncodedMessage encoded = this.encodePackets(message, MessageDirection.TO_CLIENT);
+        PlayerList playerList = Proxy.INSTANCE.getGameServer().getPlayerList();
+        for (Packet<?> packet : encoded.packets()) {
+            playerList.broadcastAll(packet, dimension);
+        }
+        this.recordSend(encoded.type(), encoded.bytes(), () -> (int) playerList.getPlayers().stream().filter(player -> player.level.dimension() == dimension).count());
+    }
+
+    /**
+     * queues a message for every player tracking <code>entity</code> individually, so it keeps its order relative to messages sent to those players in other ways
+     *
+     * @param message       message to send
+     * @param entity        the tracked entity
+     * @param includeSelf   is the entity itself included when it is a player
+     */
+    private void queueForTracking(Message<?> message, Entity entity, boolean includeSelf) {
+        ByteBuf encoded = this.batcher.encode(message);
+        int recipients = 0;
+        for (ServerPlayer player : CommonAbstractions.INSTANCE.getTrackingPlayers(entity)) {
+            this.batcher.queue(player, packet -> player.connection.send(packet), message, encoded);
+            recipients++;
+        }
+        if (includeSelf && entity instanceof ServerPlayer player) {
+            this.batcher.queue(player, packet -> player.connection.send(packet), message, encoded);
+            recipients++;
+        }
+        int sentTo = recipients;
+        this.recordSend(this.getMessageType(message.getClass()), encoded.readableBytes(), () -> sentTo);
+    }
+
+    /**
+     * @param entity        the tracked entity
+     * @param includeSelf   is the entity itself included when it is a player
+     * @return              amount of players a message sent to everyone tracking <code>entity</code> is received by
+     */
+    private static int getTrackingPlayers(Entity entity, boolean includeSelf) {
+        int players = CommonAbstractions.INSTANCE.getTrackingPlayers(entity).size();
+        return includeSelf && entity instanceof ServerPlayer ? players + 1 : players;
+    }
+
+    /**
+     * hands a message directly to the client when <code>player</code> is the host of an integrated server, skipping encoding and decoding entirely
+     *
+     * @param message   message to send
+     * @param player    client player to send to
+     * @return          was the message handled via loopback, otherwise it still needs to be sent
+     */
+    private boolean tryLoopbackToClient(Message<?> message, ServerPlayer player) {
+        MessageType<?> type = this.getMessageType(message.getClass());
+        if (!type.options().loopback() || !player.connection.connection.isMemoryConnection()) return false;
+        // only ever null on a dedicated server, which has no in-memory connections anyway
+        if (!(Proxy.INSTANCE.getClientInstance() instanceof Executor gameInstance)) return false;
+        // get the player only once the message is handled, same as for regular messages
+        gameInstance.execute(() -> this.handle(type, message, Proxy.INSTANCE.getClientPlayer(), gameInstance));
+        return true;
+    }
+
+    /**
+     * hands a message directly to the integrated server when the client is connected to it, skipping encoding and decoding entirely
+     *
+     * @param message   message to send
+     * @return          was the message handled via loopback, otherwise it still needs to be sent
+     */
+    private boolean tryLoopbackToServer(Message<?> message) {
+        MessageType<?> type = this.getMessageType(message.getClass());
+        if (!type.options().loopback() || !Proxy.INSTANCE.getClientConnection().isMemoryConnection()) return false;
+        MinecraftServer server = Proxy.INSTANCE.getGameServer();
+        Player clientPlayer = Proxy.INSTANCE.getClientPlayer();
+        if (server == null || clientPlayer == null) return false;
+        UUID uuid = clientPlayer.getUUID();
+        server.execute(() -> {
+            ServerPlayer player = server.getPlayerList().getPlayer(uuid);
+            if (player != null) this.handle(type, message, player, server);
+        });
+        return true;
+    }
+
+    /**
+     * data for a registered message
+     *
+     * @param id        numeric id, unique for this handler
+     * @param clazz     message class
+     * @param factory   factory for creating an empty message when receiving
+     * @param direction direction this message is sent in
+     * @param options   additional settings for this message type
+     * @param <T>       message implementation
+     */
+    public record MessageType<T extends Message<T>>(int id, Class<? extends T> clazz, Supplier<T> factory, MessageDirection direction, MessageOptions options) {
+
+    }
+
+    /**
+     * packets created from a single message
+     *
+     * @param type      type of the encoded message
+     * @param packets   packets to be sent in order, multiple ones when the message has been split into fragments
+     * @param bytes     encoded size of the message without any packet overhead
+     */
+    record EncodedMessage(MessageType<?> type, List<Packet<?>> packets, int bytes) {
+
+    }
+}
@@ -0,0 +1,268 @@
+package fuzs.puzzleslibforked.network;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * traffic statistics for all message types of a single {@link NetworkHandler}, counts messages and bytes and measures time spent encoding, decoding and handling
+ * <p>recording is disabled by default and toggled globally for all handlers via {@link #setEnabled}, so there is no overhead unless metrics are actually wanted
+ * <p>sent messages and bytes are counted once per recipient by the handler's send methods, while a message sent to many players is usually only encoded once
+ * <p>bundles and fragments only carry other messages, their bytes are attributed to the carried messages instead, so nothing is counted twice
+ * <p>messages sent via loopback are only counted when handled, as they are never encoded
+ */
+public class NetworkMetrics {
+    /**
+     * metrics of all network handlers, for showing and dumping everything at once
+     */
+    private static final List<NetworkMetrics> ALL_METRICS = Lists.newCopyOnWriteArrayList();
+    /**
+     * upper bounds in bytes for payload size histogram buckets, a last bucket holds everything larger
+     */
+    private static final int[] SIZE_BUCKETS = {64, 256, 1024, 4096, 16384, 65536, 262144};
+    private static final DateTimeFormatter FILE_NAME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss", Locale.ROOT);
+    /**
+     * is recording enabled for all handlers
+     */
+    private static volatile boolean enabled;
+
+    /**
+     * mod id of the network handler
+     */
+    private final String modId;
+    /**
+     * statistics for every message type, the index is equal to the message type id
+     */
+    private final List<Entry> entries = Lists.newCopyOnWriteArrayList();
+
+    /**
+     * @param modId mod id of the network handler
+     */
+    NetworkMetrics(String modId) {
+        this.modId = modId;
+        ALL_METRICS.add(this);
+    }
+
+    /**
+     * @return is recording currently enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabled enable recording for all network handlers
+     */
+    public static void setEnabled(boolean enabled) {
+        NetworkMetrics.enabled = enabled;
+    }
+
+    /**
+     * starts tracking a newly registered message type
+     *
+     * @param type the message type
+     * @param carrier does this message type only carry other messages, no bytes are recorded for such types
+     */
+    void register(NetworkHandlerImpl.MessageType<?> type, boolean carrier) {
+        if (type.id() != this.entries.size()) throw new IllegalStateException("Message type %s registered out of order".formatted(type.clazz()));
+        this.entries.add(new Entry(type.clazz(), type.direction(), carrier));
+    }
+
+    /**
+     * @param typeId message type id
+     * @param bytes encoded size of the message
+     * @param nanos time spent encoding
+     */
+    void recordEncode(int typeId, int bytes, long nanos) {
+        Entry entry = this.entries.get(typeId);
+        entry.encoded.increment();
+        entry.encodeNanos.add(nanos);
+        entry.recordSize(bytes);
+    }
+
+    /**
+     * @param typeId message type id
+     * @param bytes encoded size of the message
+     * @param recipients amount of players or servers the message is sent to
+     */
+    void recordSend(int typeId, int bytes, int recipients) {
+        Entry entry = this.entries.get(typeId);
+        if (entry.carrier || recipients <= 0) return;
+        entry.sent.add(recipients);
+        entry.sentBytes.add((long) bytes * recipients);
+    }
+
+    /**
+     * @param typeId message type id
+     * @param bytes encoded size of the message
+     * @param nanos time spent decoding
+     */
+    void recordDecode(int typeId, int bytes, long nanos) {
+        Entry entry = this.entries.get(typeId);
+        entry.received.increment();
+        if (!entry.carrier) entry.receivedBytes.add(bytes);
+        entry.decodeNanos.add(nanos);
+        entry.recordSize(bytes);
+    }
+
+    /**
+     * @param typeId message type id
+     * @param nanos time spent handling
+     */
+    void recordHandle(int typeId, long nanos) {
+        Entry entry = this.entries.get(typeId);
+        entry.handled.increment();
+        entry.handleNanos.add(nanos);
+    }
+
+    /**
+     * clears all statistics of this handler
+     */
+    public void reset() {
+        this.entries.forEach(Entry::reset);
+    }
+
+    /**
+     * clears all statistics of every handler
+     */
+    public static void resetAll() {
+        ALL_METRICS.forEach(NetworkMetrics::reset);
+    }
+
+    /**
+     * @return current statistics for every message type of this handler
+     */
+    public List<Snapshot> snapshot() {
+        return this.entries.stream().map(entry -> entry.snapshot(this.modId)).collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * @return current statistics for every message type of every handler
+     */
+    public static List<Snapshot> snapshotAll() {
+        return ALL_METRICS.stream().flatMap(metrics -> metrics.snapshot().stream()).collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * writes the current statistics of every handler to a new csv file
+     *
+     * @param directory directory to create the file in
+     * @return the created file
+     * @throws IOException when writing fails
+     */
+    public static Path dumpAll(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path path = directory.resolve("network-metrics-%s.csv".formatted(LocalDateTime.now().format(FILE_NAME_FORMATTER)));
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("mod,message,direction,sent,sent_bytes,encoded,encode_nanos,received,received_bytes,decode_nanos,handled,handle_nanos");
+            for (int bucket : SIZE_BUCKETS) {
+                writer.write(",size_le_" + bucket);
+            }
+            writer.write(",size_gt_" + SIZE_BUCKETS[SIZE_BUCKETS.length - 1]);
+            writer.newLine();
+            for (Snapshot snapshot : snapshotAll()) {
+                writer.write(String.join(",", snapshot.modId(), snapshot.clazz().getName(), snapshot.direction().name(),
+                        Long.toString(snapshot.sent()), Long.toString(snapshot.sentBytes()), Long.toString(snapshot.encoded()), Long.toString(snapshot.encodeNanos()),
+                        Long.toString(snapshot.received()), Long.toString(snapshot.receivedBytes()), Long.toString(snapshot.decodeNanos()),
+                        Long.toString(snapshot.handled()), Long.toString(snapshot.handleNanos())));
+                for (long count : snapshot.sizeHistogram()) {
+                    writer.write("," + count);
+                }
+                writer.newLine();
+            }
+        }
+        return path;
+    }
+
+    /**
+     * @param bytes payload size
+     * @return index of the histogram bucket for <code>bytes</code>
+     */
+    private static int getSizeBucket(int bytes) {
+        for (int i = 0; i < SIZE_BUCKETS.length; i++) {
+            if (bytes <= SIZE_BUCKETS[i]) return i;
+        }
+        return SIZE_BUCKETS.length;
+    }
+
+    /**
+     * statistics for a single message type
+     */
+    private static class Entry {
+        private final Class<?> clazz;
+        private final MessageDirection direction;
+        private final boolean carrier;
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder sentBytes = new LongAdder();
+        private final LongAdder encoded = new LongAdder();
+        private final LongAdder encodeNanos = new LongAdder();
+        private final LongAdder received = new LongAdder();
+        private final LongAdder receivedBytes = new LongAdder();
+        private final LongAdder decodeNanos = new LongAdder();
+        private final LongAdder handled = new LongAdder();
+        private final LongAdder handleNanos = new LongAdder();
+        private final LongAdder[] sizeHistogram = new LongAdder[SIZE_BUCKETS.length + 1];
+
+        Entry(Class<?> clazz, MessageDirection direction, boolean carrier) {
+            this.clazz = clazz;
+            this.direction = direction;
+            this.carrier = carrier;
+            Arrays.setAll(this.sizeHistogram, i -> new LongAdder());
+        }
+
+        void recordSize(int bytes) {
+            this.sizeHistogram[getSizeBucket(bytes)].increment();
+        }
+
+        void reset() {
+            for (LongAdder adder : List.of(this.sent, this.sentBytes, this.encoded, this.encodeNanos, this.received, this.receivedBytes, this.decodeNanos, this.handled, this.handleNanos)) {
+                adder.reset();
+            }
+            for (LongAdder adder : this.sizeHistogram) {
+                adder.reset();
+            }
+        }
+
+        Snapshot snapshot(String modId) {
+            return new Snapshot(modId, this.clazz, this.direction, this.sent.sum(), this.sentBytes.sum(), this.encoded.sum(), this.encodeNanos.sum(), this.received.sum(), this.receivedBytes.sum(), this.decodeNanos.sum(), this.handled.sum(), this.handleNanos.sum(), Arrays.stream(this.sizeHistogram).mapToLong(LongAdder::sum).toArray());
+        }
+    }
+
+    /**
+     * statistics for a single message type at a point in time
+     *
+     * @param modId         mod id of the network handler
+     * @param clazz         message class
+     * @param direction     direction the message is sent in
+     * @param sent          amount of messages sent, counted once for every recipient
+     * @param sentBytes     total size of sent messages, counted once for every recipient
+     * @param encoded       amount of encoded messages
+     * @param encodeNanos   total time spent encoding
+     * @param received      amount of decoded messages
+     * @param receivedBytes total size of decoded messages, always zero for types only carrying other messages
+     * @param decodeNanos   total time spent decoding
+     * @param handled       amount of handled messages
+     * @param handleNanos   total time spent handling
+     * @param sizeHistogram amount of encoded and decoded messages per size bucket
+     */
+    public record Snapshot(String modId, Class<?> clazz, MessageDirection direction, long sent, long sentBytes, long encoded, long encodeNanos, long received, long receivedBytes, long decodeNanos, long handled, long handleNanos, long[] sizeHistogram) {
+
+        /**
+         * @return total amount of bytes sent and received
+         */
+        public long totalBytes() {
+            return this.sentBytes + this.receivedBytes;
+        }
+    }
+}
@@ -2,16 +2,19 @@ package fuzs.puzzleslibforked.proxy;
 
 import fuzs.puzzleslibforked.core.CommonFactories;
 import fuzs.puzzleslibforked.core.DistTypeExecutor;
-import fuzs.puzzleslibforked.network.Message;
 import fuzs.puzzleslibforked.network.NetworkHandler;
 import net.minecraft.network.Connection;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
 
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * proxy base class for client and server implementations
@@ -52,18 +55,19 @@ public interface Proxy {
     /**
      * only used by Fabric implementation of {@link NetworkHandler}
      * @param channelName channel name
-     * @param factory message factory when received
+     * @param factory decodes a received message on the network thread and returns a handler for it, which receives the player and game instance on the main thread, null when there is nothing to handle
      */
-    default void registerClientReceiver(ResourceLocation channelName, Function<FriendlyByteBuf, Message<?>> factory) {
+    default void registerClientReceiver(ResourceLocation channelName, Function<FriendlyByteBuf, BiConsumer<Player, Object>> factory) {
 
     }
 
     /**
      * only used by Fabric implementation of {@link NetworkHandler}
      * @param channelName channel name
-     * @param factory message factory when received
+     * @param filter tested on the network thread before decoding, received messages are dropped when this fails
+     * @param factory decodes a message received from a player on the network thread and returns a handler for it, which receives the player and game instance on the main thread, null when there is nothing to handle
      */
-    default void registerServerReceiver(ResourceLocation channelName, Function<FriendlyByteBuf, Message<?>> factory) {
+    default void registerServerReceiver(ResourceLocation channelName, Predicate<ServerPlayer> filter, BiFunction<ServerPlayer, FriendlyByteBuf, BiConsumer<Player, Object>> factory) {
 
     }
 
@@ -0,0 +1,24 @@
+package fuzs.puzzleslibforked.api.client.event;
+
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
+import net.minecraft.core.RegistryAccess;
+
+public final class TagEvents {
+    public static final Event<TagsUpdated> TAGS_UPDATED = EventFactory.createArrayBacked(TagsUpdated.class, callbacks -> (RegistryAccess registryAccess) -> {
+        for (TagsUpdated callback : callbacks) {
+            callback.onTagsUpdated(registryAccess);
+        }
+    });
+
+    @FunctionalInterface
+    public interface TagsUpdated {
+
+        /**
+         * fired on the client after tags sent by the server have been received, does not reference any client classes so registering is safe on a dedicated server
+         *
+         * @param registryAccess registry access of the client connection
+         */
+        void onTagsUpdated(RegistryAccess registryAccess);
+    }
+}
@@ -2,6 +2,7 @@ package fuzs.puzzleslibforked.capability.data;
 
 import dev.onyxstudios.cca.api.v3.component.ComponentKey;
 import dev.onyxstudios.cca.api.v3.component.ComponentV3;
+import dev.onyxstudios.cca.api.v3.component.CopyableComponent;
 import net.minecraft.nbt.CompoundTag;
 
 /**
@@ -10,7 +11,7 @@ import net.minecraft.nbt.CompoundTag;
  * but this is unfortunately not possible due to the way {@link ComponentKey} is created using the factory
  * therefore we need to perform a manual cast when retrieving the wrapped {@link #component}
  */
-public record ComponentHolder(CapabilityComponent component) implements ComponentV3 {
+public record ComponentHolder(CapabilityComponent component) implements ComponentV3, CopyableComponent<ComponentHolder> {
 
     @Override
     public void readFromNbt(CompoundTag tag) {
@@ -21,4 +22,10 @@ public record ComponentHolder(CapabilityComponent component) implements Componen
     public void writeToNbt(CompoundTag tag) {
         this.component.write(tag);
     }
+
+    @Override
+    public void copyFrom(ComponentHolder other) {
+        // used by Cardinal Components when copying data on player respawn, avoids going through nbt when possible
+        PlayerRespawnStrategy.copyCapabilityData(other.component, this.component);
+    }
 }
@@ -65,6 +65,13 @@ public class FabricConfigHolderImpl implements ConfigHolder.Builder {
         return this;
     }
 
+    @Override
+    public <T extends ConfigCore> Builder setAtomicReload(Class<T> clazz, boolean atomicReload) {
+        FabricConfigDataHolderImpl<T> holder = (FabricConfigDataHolderImpl<T>) this.getHolder(clazz);
+        holder.setAtomicReload(atomicReload);
+        return this;
+    }
+
     @Override
     public void bakeConfigs(String modId) {
         this.configsByClass = ImmutableMap.copyOf(this.configsByClass);
@@ -84,6 +91,11 @@ public class FabricConfigHolderImpl implements ConfigHolder.Builder {
                     holder.onModConfig(config, true);
                 }
             });
+            ModConfigEvent.UNLOADING.register((ModConfig config) -> {
+                if (config.getModId().equals(modId)) {
+                    holder.onModConfigUnloading(config);
+                }
+            });
             holder.register((ModConfig.Type type, ForgeConfigSpec spec, UnaryOperator<String> fileName) -> {
                 return ModLoadingContext.registerConfig(modId, type, spec, fileName.apply(modId));
             });
@@ -1,16 +1,25 @@
 package fuzs.puzzleslibforked.core;
 
+import fuzs.puzzleslibforked.api.client.event.TagEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.fabricmc.fabric.api.screenhandler.v1.ExtendedScreenHandlerFactory;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.MenuProvider;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.AbstractContainerMenu;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public final class FabricAbstractions implements CommonAbstractions {
 
@@ -43,4 +52,29 @@ public final class FabricAbstractions implements CommonAbstractions {
             }
         }.run();
     }
+
+    @Override
+    public void registerEndServerTick(Consumer<MinecraftServer> callback) {
+        ServerTickEvents.END_SERVER_TICK.register(callback::accept);
+    }
+
+    @Override
+    public void registerTagsUpdated(Runnable callback) {
+        // tags are bound before the server has fully started
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> callback.run());
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) -> {
+            if (success) callback.run();
+        });
+        TagEvents.TAGS_UPDATED.register(registryAccess -> callback.run());
+    }
+
+    @Override
+    public void registerPlayerJoin(Consumer<ServerPlayer> callback) {
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> callback.accept(handler.player));
+    }
+
+    @Override
+    public Collection<ServerPlayer> getTrackingPlayers(Entity entity) {
+        return PlayerLookup.tracking(entity);
+    }
 }
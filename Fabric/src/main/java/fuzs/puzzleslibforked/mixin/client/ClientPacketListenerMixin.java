@@ -0,0 +1,18 @@
+package fuzs.puzzleslibforked.mixin.client;
+
+import fuzs.puzzleslibforked.api.client.event.TagEvents;
+import net.minecraft.client.multiplayer.ClientPacketListener;
+import net.minecraft.network.protocol.game.ClientboundUpdateTagsPacket;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ClientPacketListener.class)
+public abstract class ClientPacketListenerMixin {
+
+    @Inject(method = "handleUpdateTags", at = @At("TAIL"))
+    public void puzzleslibforked$handleUpdateTags(ClientboundUpdateTagsPacket packet, CallbackInfo callback) {
+        TagEvents.TAGS_UPDATED.invoker().onTagsUpdated(((ClientPacketListener) (Object) this).registryAccess());
+    }
+}
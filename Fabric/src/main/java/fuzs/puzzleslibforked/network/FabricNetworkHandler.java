@@ -2,91 +2,76 @@ package fuzs.puzzleslibforked.network;
 
 import com.google.common.collect.Maps;
 import fuzs.puzzleslibforked.proxy.Proxy;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
-import net.minecraft.Util;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.resources.ResourceLocation;
 
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.BiFunction;
-import java.util.function.Function;
-import java.util.function.Supplier;
 
 /**
  * handler for network communications of all puzzles lib mods
  */
-public class FabricNetworkHandler implements NetworkHandler {
+public class FabricNetworkHandler extends NetworkHandlerImpl {
     /**
      * store network handlers created for a mod to avoid duplicate channels
      */
     private static final Map<String, FabricNetworkHandler> MOD_TO_NETWORK = Maps.newConcurrentMap();
 
     /**
-     * registry for class to identifier relation
+     * channel identifiers by message type id
      */
-    private final Map<Class<? extends Message<?>>, MessageData> messages = Maps.newIdentityHashMap();
+    private final Int2ObjectMap<ResourceLocation> channelNames = new Int2ObjectOpenHashMap<>();
     /**
      * mod id for channel identifier
      */
     private final String modId;
-    /**
-     * message index
-     */
-    private final AtomicInteger discriminator = new AtomicInteger();
 
     /**
      * @param modId mod id for channel identifier
      */
     private FabricNetworkHandler(String modId) {
+        super(modId);
         this.modId = modId;
     }
 
     @Override
-    public <T extends Message<T>> void register(Class<? extends T> clazz, Supplier<T> supplier, MessageDirection direction) {
-        ResourceLocation channelName = this.nextIdentifier();
-        this.messages.put(clazz, new MessageData(clazz, channelName, direction));
-        final Function<FriendlyByteBuf, Message<?>> decode = buf -> Util.make(supplier.get(), message -> message.read(buf));
-        switch (direction) {
-            case TO_CLIENT -> Proxy.INSTANCE.registerClientReceiver(channelName, decode);
-            case TO_SERVER -> Proxy.INSTANCE.registerServerReceiver(channelName, decode);
+    protected <T extends Message<T>> void registerMessageType(MessageType<T> type) {
+        ResourceLocation channelName = this.toIdentifier(type.id());
+        this.channelNames.put(type.id(), channelName);
+        switch (type.direction()) {
+            case TO_CLIENT -> Proxy.INSTANCE.registerClientReceiver(channelName, buf -> this.receive(type, this.decode(type, buf), null));
+            case TO_SERVER -> Proxy.INSTANCE.registerServerReceiver(channelName, player -> this.tryReceive(type, player), (player, buf) -> this.receive(type, this.decode(type, buf), player));
         }
     }
 
     /**
-     * use discriminator to generate identifier for package
+     * use message type id to generate identifier for package
      *
-     * @return unique identifier
+     * @param id    message type id
+     * @return      unique identifier
      */
-    private ResourceLocation nextIdentifier() {
-        return new ResourceLocation(this.modId, "play/" + this.discriminator.getAndIncrement());
+    private ResourceLocation toIdentifier(int id) {
+        return new ResourceLocation(this.modId, "play/" + id);
     }
 
     @Override
-    public Packet<?> toServerboundPacket(Message<?> message) {
-        if (this.messages.get(message.getClass()).direction() != MessageDirection.TO_SERVER) throw new IllegalStateException("Attempted sending message to wrong side, expected %s, was %s".formatted(MessageDirection.TO_SERVER, MessageDirection.TO_CLIENT));
-        return this.toPacket(ClientPlayNetworking::createC2SPacket, message);
+    protected FriendlyByteBuf createPacketBuffer(MessageType<?> type) {
+        return PacketByteBufs.create();
     }
 
     @Override
-    public Packet<?> toClientboundPacket(Message<?> message) {
-        if (this.messages.get(message.getClass()).direction() != MessageDirection.TO_CLIENT) throw new IllegalStateException("Attempted sending message to wrong side, expected %s, was %s".formatted(MessageDirection.TO_CLIENT, MessageDirection.TO_SERVER));
-        return this.toPacket(ServerPlayNetworking::createS2CPacket, message);
+    protected Packet<?> toServerboundPacket(MessageType<?> type, FriendlyByteBuf buf) {
+        return ClientPlayNetworking.createC2SPacket(this.channelNames.get(type.id()), buf);
     }
 
-    /**
-     * @param packetFactory     packet factory for client or server
-     * @param message           message to create packet from
-     * @return                  packet for message
-     */
-    private Packet<?> toPacket(BiFunction<ResourceLocation, FriendlyByteBuf, Packet<?>> packetFactory, Message<?> message) {
-        ResourceLocation identifier = this.messages.get(message.getClass()).identifier();
-        FriendlyByteBuf byteBuf = PacketByteBufs.create();
-        message.write(byteBuf);
-        return packetFactory.apply(identifier, byteBuf);
+    @Override
+    protected Packet<?> toClientboundPacket(MessageType<?> type, FriendlyByteBuf buf) {
+        return ServerPlayNetworking.createS2CPacket(this.channelNames.get(type.id()), buf);
     }
 
     /**
@@ -98,15 +83,4 @@ public class FabricNetworkHandler implements NetworkHandler {
     public synchronized static NetworkHandler of(String modId) {
         return MOD_TO_NETWORK.computeIfAbsent(modId, FabricNetworkHandler::new);
     }
-
-    /**
-     * basic data class for data from registering messages
-     *
-     * @param clazz         message base class
-     * @param identifier    registered identifier
-     * @param direction     direction message is sent
-     */
-    private record MessageData(Class<? extends Message<?>> clazz, ResourceLocation identifier, MessageDirection direction) {
-
-    }
 }
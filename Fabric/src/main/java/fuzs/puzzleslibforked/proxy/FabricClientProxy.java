@@ -1,6 +1,5 @@
 package fuzs.puzzleslibforked.proxy;
 
-import fuzs.puzzleslibforked.network.Message;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.fabricmc.fabric.api.networking.v1.PacketSender;
 import net.minecraft.client.Minecraft;
@@ -13,6 +12,7 @@ import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
 
 import java.util.Objects;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 /**
@@ -42,10 +42,11 @@ public class FabricClientProxy extends FabricServerProxy {
     }
 
     @Override
-    public void registerClientReceiver(ResourceLocation channelName, Function<FriendlyByteBuf, Message<?>> factory) {
+    public void registerClientReceiver(ResourceLocation channelName, Function<FriendlyByteBuf, BiConsumer<Player, Object>> factory) {
         ClientPlayNetworking.registerGlobalReceiver(channelName, (Minecraft client, ClientPacketListener handler, FriendlyByteBuf buf, PacketSender responseSender) -> {
-            Message<?> message = factory.apply(buf);
-            client.execute(() -> message.handle(client.player, client));
+            BiConsumer<Player, Object> messageHandler = factory.apply(buf);
+            if (messageHandler == null) return;
+            client.execute(() -> messageHandler.accept(client.player, client));
         });
     }
 
@@ -1,7 +1,6 @@
 package fuzs.puzzleslibforked.proxy;
 
 import fuzs.puzzleslibforked.network.FabricNetworkHandler;
-import fuzs.puzzleslibforked.network.Message;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.networking.v1.PacketSender;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
@@ -14,7 +13,9 @@ import net.minecraft.server.network.ServerGamePacketListenerImpl;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
 
-import java.util.function.Function;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
 
 /**
  * server proxy class
@@ -60,10 +61,12 @@ public class FabricServerProxy implements Proxy {
     }
 
     @Override
-    public void registerServerReceiver(ResourceLocation channelName, Function<FriendlyByteBuf, Message<?>> factory) {
+    public void registerServerReceiver(ResourceLocation channelName, Predicate<ServerPlayer> filter, BiFunction<ServerPlayer, FriendlyByteBuf, BiConsumer<Player, Object>> factory) {
         ServerPlayNetworking.registerGlobalReceiver(channelName, (MinecraftServer server, ServerPlayer player, ServerGamePacketListenerImpl handler, FriendlyByteBuf buf, PacketSender responseSender) -> {
-            Message<?> message = factory.apply(buf);
-            server.execute(() -> message.handle(player, server));
+            if (!filter.test(player)) return;
+            BiConsumer<Player, Object> messageHandler = factory.apply(player, buf);
+            if (messageHandler == null) return;
+            server.execute(() -> messageHandler.accept(player, server));
         });
     }
 
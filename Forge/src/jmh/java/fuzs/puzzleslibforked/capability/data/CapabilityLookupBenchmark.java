@@ -0,0 +1,83 @@
+package fuzs.puzzleslibforked.capability.data;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityManager;
+import net.minecraftforge.common.capabilities.CapabilityToken;
+import net.minecraftforge.common.util.LazyOptional;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * allocation per capability lookup, <code>gc.alloc.rate.norm</code> reported by the gc profiler should be close to zero for {@link #get} and {@link #orThrow}
+ * <p>{@link #uncached} shows how lookups used to work, with a new {@link LazyOptional} for every query
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CapabilityLookupBenchmark {
+    private ForgeCapabilityKey<BenchmarkComponent> key;
+    private Capability<BenchmarkComponent> capability;
+    private BenchmarkComponent storage;
+    private CapabilityHolder<BenchmarkComponent> holder;
+
+    @Setup
+    public void setup() {
+        CapabilityToken<BenchmarkComponent> token = new CapabilityToken<>() {};
+        this.key = new ForgeCapabilityKey<>(new ResourceLocation("puzzleslibforked", "benchmark"), BenchmarkComponent.class, CapabilityManager::get);
+        this.key.createCapability(token);
+        this.capability = CapabilityManager.get(token);
+        this.storage = new BenchmarkComponent();
+        this.holder = new CapabilityHolder<>(this.capability, this.storage);
+    }
+
+    @Benchmark
+    public BenchmarkComponent uncached() {
+        LazyOptional<BenchmarkComponent> optional = this.getCapabilityUncached(this.capability);
+        return optional.isPresent() ? optional.orElseThrow(IllegalStateException::new) : null;
+    }
+
+    /**
+     * {@link CapabilityHolder#getCapability} before the lazy optional was cached
+     */
+    private <S> LazyOptional<S> getCapabilityUncached(Capability<S> capability) {
+        return capability == this.capability ? LazyOptional.of(() -> this.storage).cast() : LazyOptional.empty();
+    }
+
+    @Benchmark
+    public BenchmarkComponent get() {
+        return this.key.get(this.holder);
+    }
+
+    @Benchmark
+    public BenchmarkComponent orThrow() {
+        return this.key.orThrow(this.holder);
+    }
+
+    /**
+     * only allocates the returned {@link Optional}
+     */
+    @Benchmark
+    public Optional<BenchmarkComponent> maybeGet() {
+        return this.key.maybeGet(this.holder);
+    }
+
+    public static class BenchmarkComponent implements CapabilityComponent {
+
+        @Override
+        public void write(CompoundTag tag) {
+
+        }
+
+        @Override
+        public void read(CompoundTag tag) {
+
+        }
+    }
+}
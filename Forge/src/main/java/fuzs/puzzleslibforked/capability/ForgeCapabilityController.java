@@ -17,7 +17,9 @@ import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.capabilities.*;
 import net.minecraftforge.event.AttachCapabilitiesEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
@@ -47,6 +49,12 @@ public class ForgeCapabilityController implements CapabilityController {
      * internal storage for registering capability entries
      */
     private final Map<ResourceLocation, CapabilityData<?>> idToCapabilityData = Maps.newHashMap();
+    /**
+     * registrations frozen after {@link RegisterCapabilitiesEvent} by provider type for attaching capabilities without having to look up anything,
+     * null until then
+     */
+    @Nullable
+    private volatile Map<Class<?>, AttachPlan> attachPlans;
 
     /**
      * private constructor
@@ -63,12 +71,12 @@ public class ForgeCapabilityController implements CapabilityController {
 
     @Override
     public <T extends Entity, C extends CapabilityComponent> CapabilityKey<C> registerEntityCapability(String capabilityKey, Class<C> capabilityType, CapabilityFactory<C> capabilityFactory, Class<T> entityType) {
-        return this.registerCapability(Entity.class, capabilityKey, capabilityType, capabilityFactory, entityType::isInstance);
+        return this.registerCapability(Entity.class, capabilityKey, capabilityType, capabilityFactory, isAssignableTo(entityType));
     }
 
     @Override
     public <C extends CapabilityComponent> PlayerCapabilityKey<C> registerPlayerCapability(String capabilityKey, Class<C> capabilityType, CapabilityFactory<C> capabilityFactory, PlayerRespawnStrategy respawnStrategy) {
-        return this.registerCapability(Entity.class, capabilityKey, capabilityType, capabilityFactory, Player.class::isInstance, ForgePlayerCapabilityKey<C>::new).setRespawnStrategy(respawnStrategy);
+        return this.registerCapability(Entity.class, capabilityKey, capabilityType, capabilityFactory, isAssignableTo(Player.class), ForgePlayerCapabilityKey<C>::new).setRespawnStrategy(respawnStrategy);
     }
 
     @Override
@@ -78,7 +86,7 @@ public class ForgeCapabilityController implements CapabilityController {
 
     @Override
     public <T extends BlockEntity, C extends CapabilityComponent> CapabilityKey<C> registerBlockEntityCapability(String capabilityKey, Class<C> capabilityType, CapabilityFactory<C> capabilityFactory, Class<T> blockEntityType) {
-        return this.registerCapability(BlockEntity.class, capabilityKey, capabilityType, capabilityFactory, blockEntityType::isInstance);
+        return this.registerCapability(BlockEntity.class, capabilityKey, capabilityType, capabilityFactory, isAssignableTo(blockEntityType));
     }
 
     @Override
@@ -91,6 +99,16 @@ public class ForgeCapabilityController implements CapabilityController {
         return this.registerCapability(Level.class, capabilityKey, capabilityType, capabilityFactory, o -> true);
     }
 
+    /**
+     * creates a filter for runtime classes of providers
+     *
+     * @param type  type a provider class must be a subclass of
+     * @return      filter for provider classes
+     */
+    private static Predicate<Object> isAssignableTo(Class<?> type) {
+        return o -> o instanceof Class<?> clazz && type.isAssignableFrom(clazz);
+    }
+
     /**
      * register capabilities for a given object type
      *
@@ -98,7 +116,7 @@ public class ForgeCapabilityController implements CapabilityController {
      * @param capabilityKey         path for internal name of this capability, will be used for serialization
      * @param capabilityType        interface for this capability
      * @param capabilityFactory     capability factory called when attaching to an object
-     * @param filter                filter for <code>providerType</code>
+     * @param filter                filter for <code>providerType</code>, tested against the result of {@link #toFilterKey}
      * @param <C>                   capability type
      * @return                      capability instance from capability manager
      */
@@ -113,7 +131,7 @@ public class ForgeCapabilityController implements CapabilityController {
      * @param capabilityKey         path for internal name of this capability, will be used for serialization
      * @param capabilityType        interface for this capability
      * @param capabilityFactory     capability factory called when attaching to an object
-     * @param filter                filter for <code>providerType</code>
+     * @param filter                filter for <code>providerType</code>, tested against the result of {@link #toFilterKey}
      * @param capabilityKeyFactory  factory for the capability key implementation, required by players
      * @param <C>                   capability type
      * @param <T>                   special capability type for performing additional setup actions on the key
@@ -133,15 +151,56 @@ public class ForgeCapabilityController implements CapabilityController {
         for (CapabilityData<?> data : this.toCapabilityData(this.providerClazzToIds.values())) {
             evt.register(data.capabilityType());
         }
+        // all capabilities must be present now, so freeze everything needed for attaching
+        Map<Class<?>, AttachPlan> attachPlans = Maps.newIdentityHashMap();
+        for (Class<?> providerClazz : this.providerClazzToIds.keySet()) {
+            attachPlans.put(providerClazz, new AttachPlan(this.toCapabilityData(providerClazz).toArray(new CapabilityData<?>[0])));
+        }
+        this.attachPlans = attachPlans;
     }
 
     @SubscribeEvent
     public void onAttachCapabilities(final AttachCapabilitiesEvent<?> evt) {
-        for (CapabilityData<?> data : this.toCapabilityData((Class<?>) evt.getGenericType())) {
-            if (data.filter().test(evt.getObject())) {
-                evt.addCapability(data.capabilityKey(), data.capabilityFactory().createComponent(evt.getObject()));
+        Object provider = evt.getObject();
+        Map<Class<?>, AttachPlan> attachPlans = this.attachPlans;
+        CapabilityData<?>[] capabilities;
+        if (attachPlans != null) {
+            AttachPlan attachPlan = attachPlans.get((Class<?>) evt.getGenericType());
+            if (attachPlan == null) return;
+            capabilities = attachPlan.get(toFilterKey(provider));
+        } else {
+            capabilities = filterCapabilityData(this.toCapabilityData((Class<?>) evt.getGenericType()).toArray(new CapabilityData<?>[0]), toFilterKey(provider));
+        }
+        for (CapabilityData<?> data : capabilities) {
+            evt.addCapability(data.capabilityKey(), data.capabilityFactory().createComponent(provider));
+        }
+    }
+
+    /**
+     * the key capability filters are tested against, which is the item for item stacks and the runtime class for everything else
+     * <p>filter results only depend on this key, so they can be cached
+     *
+     * @param provider  the object capabilities are attached to
+     * @return          key for testing filters
+     */
+    private static Object toFilterKey(Object provider) {
+        return provider instanceof ItemStack stack ? stack.getItem() : provider.getClass();
+    }
+
+    /**
+     * @param capabilities  all capabilities registered for a provider type
+     * @param filterKey     key from {@link #toFilterKey}
+     * @return              capabilities to attach for <code>filterKey</code>
+     */
+    private static CapabilityData<?>[] filterCapabilityData(CapabilityData<?>[] capabilities, Object filterKey) {
+        int size = 0;
+        CapabilityData<?>[] filtered = new CapabilityData<?>[capabilities.length];
+        for (CapabilityData<?> data : capabilities) {
+            if (data.filter().test(filterKey)) {
+                filtered[size++] = data;
             }
         }
+        return size == filtered.length ? filtered : Arrays.copyOf(filtered, size);
     }
 
     /**
@@ -210,4 +269,37 @@ public class ForgeCapabilityController implements CapabilityController {
     private record CapabilityData<C extends CapabilityComponent>(ResourceLocation capabilityKey, Class<C> capabilityType, CapabilityFactory<CapabilityHolder<C>> capabilityFactory, Predicate<Object> filter) {
 
     }
+
+    /**
+     * all capabilities registered for a provider type, capabilities passing the filter are cached per filter key
+     */
+    private static class AttachPlan {
+        /**
+         * all capabilities registered for the provider type
+         */
+        private final CapabilityData<?>[] capabilities;
+        /**
+         * capabilities passing the filter by filter key, the amount of keys is limited to registered items and classes
+         */
+        private final Map<Object, CapabilityData<?>[]> filteredCapabilities = Maps.newConcurrentMap();
+
+        /**
+         * @param capabilities all capabilities registered for the provider type
+         */
+        AttachPlan(CapabilityData<?>[] capabilities) {
+            this.capabilities = capabilities;
+        }
+
+        /**
+         * @param filterKey key from {@link #toFilterKey}
+         * @return          capabilities to attach
+         */
+        CapabilityData<?>[] get(Object filterKey) {
+            CapabilityData<?>[] capabilities = this.filteredCapabilities.get(filterKey);
+            if (capabilities == null) {
+                capabilities = this.filteredCapabilities.computeIfAbsent(filterKey, key -> filterCapabilityData(this.capabilities, key));
+            }
+            return capabilities;
+        }
+    }
 }
@@ -23,6 +23,10 @@ public class CapabilityHolder<T extends CapabilityComponent> implements ICapabil
      * capability object
      */
     private final T storage;
+    /**
+     * capability object wrapped once, so querying this holder does not allocate
+     */
+    private final LazyOptional<T> optional;
 
     /**
      * @param storage object
@@ -31,12 +35,13 @@ public class CapabilityHolder<T extends CapabilityComponent> implements ICapabil
     public CapabilityHolder(Capability<T> capability, T storage) {
         this.capability = capability;
         this.storage = storage;
+        this.optional = LazyOptional.of(() -> storage);
     }
 
     @Nonnull
     @Override
     public <S> LazyOptional<S> getCapability(@Nonnull Capability<S> capability, @Nullable Direction facing) {
-        return capability == this.capability  ? LazyOptional.of(() -> this.storage).cast() : LazyOptional.empty();
+        return capability == this.capability ? this.optional.cast() : LazyOptional.empty();
     }
 
     @Override
@@ -5,10 +5,8 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.CapabilityToken;
 import net.minecraftforge.common.capabilities.ICapabilityProvider;
-import net.minecraftforge.common.util.LazyOptional;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -70,28 +68,23 @@ public class ForgeCapabilityKey<C extends CapabilityComponent> implements Capabi
     public <V> C get(@Nullable V provider) {
         this.validateCapability();
         if (provider instanceof ICapabilityProvider capabilityProvider) {
-            LazyOptional<C> optional = capabilityProvider.getCapability(this.capability);
-            if (optional.isPresent()) {
-                return optional.orElseThrow(IllegalStateException::new);
-            }
+            // capability holders cache their lazy optional, so this doesn't allocate anything
+            return capabilityProvider.getCapability(this.capability).orElse(null);
         }
         return null;
     }
 
     @Override
     public <V> Optional<C> maybeGet(@Nullable V provider) {
-        this.validateCapability();
-        if (provider instanceof ICapabilityProvider capabilityProvider) {
-            return capabilityProvider.getCapability(this.capability).resolve();
-        }
-        return Optional.empty();
+        return Optional.ofNullable(this.get(provider));
     }
 
     /**
      * check if a token has been supplied and the capability has been created
      */
     void validateCapability() {
-        Objects.requireNonNull(this.capability, "No valid capability implementation registered for %s".formatted(this.id));
+        // don't use Objects#requireNonNull, the message would be formatted on every call
+        if (this.capability == null) throw new NullPointerException("No valid capability implementation registered for %s".formatted(this.id));
     }
 
     /**
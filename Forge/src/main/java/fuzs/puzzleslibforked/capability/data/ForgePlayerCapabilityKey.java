@@ -4,9 +4,8 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.GameRules;
-import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.capabilities.CapabilityToken;
-import net.minecraftforge.event.entity.player.PlayerEvent;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * implementation of {@link CapabilityKey} for players on Forge
@@ -15,10 +14,10 @@ import net.minecraftforge.event.entity.player.PlayerEvent;
  */
 public class ForgePlayerCapabilityKey<C extends CapabilityComponent> extends ForgeCapabilityKey<C> implements PlayerCapabilityKey<C> {
     /**
-     * has a respawn strategy for players for copying capability data been set
-     * we don't need to have the actual strategy, just make sure it isn't set multiple times using this
+     * respawn strategy for players for copying capability data, must be set exactly once
      */
-    private boolean respawnStrategy;
+    @Nullable
+    private PlayerRespawnStrategy respawnStrategy;
     /**
      * strategy for syncing this capability data to remote
      */
@@ -38,17 +37,17 @@ public class ForgePlayerCapabilityKey<C extends CapabilityComponent> extends For
      * @return                  builder
      */
     public ForgePlayerCapabilityKey<C> setRespawnStrategy(PlayerRespawnStrategy respawnStrategy) {
-        // do this to avoid registering the event multiple times accidentally somehow
-        if (this.respawnStrategy) throw new IllegalStateException("Attempting to set new player respawn strategy when it has already been set");
-        this.respawnStrategy = true;
-        MinecraftForge.EVENT_BUS.addListener((final PlayerEvent.Clone evt) -> this.onPlayerClone(evt, respawnStrategy));
+        // do this to avoid registering with the dispatcher multiple times accidentally somehow
+        if (this.respawnStrategy != null) throw new IllegalStateException("Attempting to set new player respawn strategy when it has already been set");
+        this.respawnStrategy = respawnStrategy;
+        PlayerCapabilityDispatcher.addRespawnKey(this);
         return this;
     }
 
     @Override
     void validateCapability() {
         super.validateCapability();
-        if (!this.respawnStrategy) throw new IllegalStateException("Player respawn strategy missing from capability %s".formatted(this.getId()));
+        if (this.respawnStrategy == null) throw new IllegalStateException("Player respawn strategy missing from capability %s".formatted(this.getId()));
     }
 
     /**
@@ -58,10 +57,9 @@ public class ForgePlayerCapabilityKey<C extends CapabilityComponent> extends For
     public ForgePlayerCapabilityKey<C> setSyncStrategy(SyncStrategy syncStrategy) {
         if (this.syncStrategy != SyncStrategy.MANUAL) throw new IllegalStateException("Attempting to set new sync behaviour when it has already been set");
         this.syncStrategy = syncStrategy;
-        MinecraftForge.EVENT_BUS.addListener(this::onPlayerLoggedIn);
-        MinecraftForge.EVENT_BUS.addListener(this::onPlayerChangedDimension);
+        PlayerCapabilityDispatcher.addSyncKey(this);
         if (syncStrategy == SyncStrategy.SELF_AND_TRACKING) {
-            MinecraftForge.EVENT_BUS.addListener(this::onStartTracking);
+            PlayerCapabilityDispatcher.addTrackingKey(this);
         }
         return this;
     }
@@ -71,35 +69,44 @@ public class ForgePlayerCapabilityKey<C extends CapabilityComponent> extends For
         PlayerCapabilityKey.syncCapabilityToRemote(player, player, this.syncStrategy, this.orThrow(player), this.getId(), false);
     }
 
-    private void onPlayerClone(final PlayerEvent.Clone evt, PlayerRespawnStrategy respawnStrategy) {
-        // we have to revive caps and then invalidate them again since 1.17+
-        evt.getOriginal().reviveCaps();
-        this.maybeGet(evt.getOriginal()).ifPresent(oldCapability -> {
-            this.maybeGet(evt.getEntity()).ifPresent(newCapability -> {
-                respawnStrategy.copy(oldCapability, newCapability, !evt.isWasDeath(), evt.getEntity().level.getGameRules().getBoolean(GameRules.RULE_KEEPINVENTORY));
-            });
-        });
-        evt.getOriginal().invalidateCaps();
-    }
-
-    private void onPlayerLoggedIn(final PlayerEvent.PlayerLoggedInEvent evt) {
-        Player player = evt.getPlayer();
-        this.maybeGet(player).ifPresent(capability -> {
-            PlayerCapabilityKey.syncCapabilityToRemote(player, (ServerPlayer) player, this.syncStrategy, capability, this.getId(), true);
-        });
+    /**
+     * copies capability data when the player entity is recreated, caps on <code>original</code> must have been revived already
+     *
+     * @param original  the old player
+     * @param player    the new player
+     * @param wasDeath  was the player recreated due to dying
+     */
+    void onPlayerClone(Player original, Player player, boolean wasDeath) {
+        C oldCapability = this.get(original);
+        if (oldCapability == null) return;
+        C newCapability = this.get(player);
+        if (newCapability == null) return;
+        this.respawnStrategy.copy(oldCapability, newCapability, !wasDeath, player.level.getGameRules().getBoolean(GameRules.RULE_KEEPINVENTORY));
     }
 
-    private void onPlayerChangedDimension(final PlayerEvent.PlayerChangedDimensionEvent evt) {
-        Player player = evt.getPlayer();
-        this.maybeGet(player).ifPresent(capability -> {
-            PlayerCapabilityKey.syncCapabilityToRemote(player, (ServerPlayer) player, this.syncStrategy, capability, this.getId(), true);
-        });
+    /**
+     * syncs capability data on login and dimension change
+     *
+     * @param player    the capability holder
+     */
+    void onForcedSync(ServerPlayer player) {
+        C capability = this.get(player);
+        if (capability != null) {
+            PlayerCapabilityKey.syncCapabilityToRemote(player, player, this.syncStrategy, capability, this.getId(), true);
+        }
     }
 
-    private void onStartTracking(final PlayerEvent.StartTracking evt) {
-        this.maybeGet(evt.getTarget()).ifPresent(capability -> {
+    /**
+     * syncs capability data to a player that started tracking the capability holder
+     *
+     * @param target    the capability holder
+     * @param player    player that started tracking
+     */
+    void onStartTracking(Player target, ServerPlayer player) {
+        C capability = this.get(target);
+        if (capability != null) {
             // we only want to sync to the client that just started tracking, so use SyncStrategy#SELF
-            PlayerCapabilityKey.syncCapabilityToRemote(evt.getTarget(), (ServerPlayer) evt.getEntity(), SyncStrategy.SELF, capability, this.getId(), true);
-        });
+            PlayerCapabilityKey.syncCapabilityToRemote(target, player, SyncStrategy.SELF, capability, this.getId(), true);
+        }
     }
 }
@@ -0,0 +1,107 @@
+package fuzs.puzzleslibforked.capability.data;
+
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+
+import java.util.Arrays;
+
+/**
+ * dispatches player events to all {@link ForgePlayerCapabilityKey}s that need them,
+ * so there is only a single event listener per event no matter how many keys are registered
+ */
+final class PlayerCapabilityDispatcher {
+    /**
+     * keys with a respawn strategy
+     */
+    private static volatile ForgePlayerCapabilityKey<?>[] respawnKeys = new ForgePlayerCapabilityKey<?>[0];
+    /**
+     * keys synced on login and dimension change
+     */
+    private static volatile ForgePlayerCapabilityKey<?>[] syncKeys = new ForgePlayerCapabilityKey<?>[0];
+    /**
+     * keys synced to players that start tracking the holder
+     */
+    private static volatile ForgePlayerCapabilityKey<?>[] trackingKeys = new ForgePlayerCapabilityKey<?>[0];
+    /**
+     * have the event listeners been registered yet
+     */
+    private static boolean registered;
+
+    private PlayerCapabilityDispatcher() {
+
+    }
+
+    /**
+     * @param key key with a respawn strategy
+     */
+    static synchronized void addRespawnKey(ForgePlayerCapabilityKey<?> key) {
+        respawnKeys = append(respawnKeys, key);
+        registerListeners();
+    }
+
+    /**
+     * @param key key to sync on login and dimension change
+     */
+    static synchronized void addSyncKey(ForgePlayerCapabilityKey<?> key) {
+        syncKeys = append(syncKeys, key);
+        registerListeners();
+    }
+
+    /**
+     * @param key key to sync to players that start tracking the holder
+     */
+    static synchronized void addTrackingKey(ForgePlayerCapabilityKey<?> key) {
+        trackingKeys = append(trackingKeys, key);
+        registerListeners();
+    }
+
+    private static ForgePlayerCapabilityKey<?>[] append(ForgePlayerCapabilityKey<?>[] keys, ForgePlayerCapabilityKey<?> key) {
+        ForgePlayerCapabilityKey<?>[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+        newKeys[keys.length] = key;
+        return newKeys;
+    }
+
+    private static void registerListeners() {
+        if (registered) return;
+        registered = true;
+        MinecraftForge.EVENT_BUS.addListener(PlayerCapabilityDispatcher::onPlayerClone);
+        MinecraftForge.EVENT_BUS.addListener(PlayerCapabilityDispatcher::onPlayerLoggedIn);
+        MinecraftForge.EVENT_BUS.addListener(PlayerCapabilityDispatcher::onPlayerChangedDimension);
+        MinecraftForge.EVENT_BUS.addListener(PlayerCapabilityDispatcher::onStartTracking);
+    }
+
+    private static void onPlayerClone(final PlayerEvent.Clone evt) {
+        ForgePlayerCapabilityKey<?>[] keys = respawnKeys;
+        if (keys.length == 0) return;
+        // we have to revive caps and then invalidate them again since 1.17+
+        evt.getOriginal().reviveCaps();
+        for (ForgePlayerCapabilityKey<?> key : keys) {
+            key.onPlayerClone(evt.getOriginal(), evt.getPlayer(), evt.isWasDeath());
+        }
+        evt.getOriginal().invalidateCaps();
+    }
+
+    private static void onPlayerLoggedIn(final PlayerEvent.PlayerLoggedInEvent evt) {
+        syncAll((ServerPlayer) evt.getPlayer());
+    }
+
+    private static void onPlayerChangedDimension(final PlayerEvent.PlayerChangedDimensionEvent evt) {
+        syncAll((ServerPlayer) evt.getPlayer());
+    }
+
+    private static void syncAll(ServerPlayer player) {
+        for (ForgePlayerCapabilityKey<?> key : syncKeys) {
+            key.onForcedSync(player);
+        }
+    }
+
+    private static void onStartTracking(final PlayerEvent.StartTracking evt) {
+        ForgePlayerCapabilityKey<?>[] keys = trackingKeys;
+        if (keys.length == 0 || !(evt.getTarget() instanceof Player target)) return;
+        for (ForgePlayerCapabilityKey<?> key : keys) {
+            key.onStartTracking(target, (ServerPlayer) evt.getPlayer());
+        }
+    }
+}
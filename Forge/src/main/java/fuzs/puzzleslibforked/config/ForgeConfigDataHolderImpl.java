@@ -52,7 +52,7 @@ class ForgeConfigDataHolderImpl<T extends ConfigCore> extends ConfigDataHolderIm
             return Either.right("Mod config instance is missing");
         } else if (this.modConfig.getConfigData() == null) {
             return Either.right("Config data is missing");
-        } else if (!this.available) {
+        } else if (!this.loaded) {
             return Either.right("Config callbacks have not been loaded");
         }
         return Either.left(Unit.INSTANCE);
@@ -70,18 +70,32 @@ class ForgeConfigDataHolderImpl<T extends ConfigCore> extends ConfigDataHolderIm
         if (config.getType() == this.configType && (this.modConfig == null || config == this.modConfig)) {
             String loading;
             if (config.getConfigData() != null) {
-                this.available = true;
+                this.loaded = true;
                 loading = reloading ? "Reloading" : "Loading";
-                this.configValueCallbacks.forEach(Runnable::run);
-                this.additionalCallbacks.forEach(Runnable::run);
+                this.updateAvailability();
+                this.applyConfigValues(reloading);
             } else {
-                this.available = false;
+                this.loaded = false;
                 loading = "Unloading";
+                this.updateAvailability();
             }
             PuzzlesLib.LOGGER.info("{} {} config for {}", loading, config.getType().extension(), config.getModId());
         }
     }
 
+    /**
+     * mod loader event on config unloading, happens when a server config is unloaded together with the world
+     *
+     * @param config    mod config instance
+     */
+    public void onModConfigUnloading(ModConfig config) {
+        if (config == this.modConfig && this.loaded) {
+            this.loaded = false;
+            this.updateAvailability();
+            PuzzlesLib.LOGGER.info("Unloading {} config for {}", config.getType().extension(), config.getModId());
+        }
+    }
+
     /**
      * register configs, creates the {@link ModConfig}
      *
@@ -91,6 +105,8 @@ class ForgeConfigDataHolderImpl<T extends ConfigCore> extends ConfigDataHolderIm
         Objects.requireNonNull(this.config, "Attempting to register invalid config of type %s".formatted(this.configType.extension()));
         if (this.modConfig != null) throw new IllegalStateException(String.format("Config for type %s has already been registered!", this.configType));
         this.modConfig = factory.createAndRegister(this.configType, this.buildSpec(), this.fileName);
+        // config might have been loaded while the mod config was still being constructed
+        this.updateAvailability();
     }
 
     /**
@@ -68,6 +68,13 @@ public class ForgeConfigHolderImpl implements ConfigHolder.Builder {
         return this;
     }
 
+    @Override
+    public <T extends ConfigCore> Builder setAtomicReload(Class<T> clazz, boolean atomicReload) {
+        ForgeConfigDataHolderImpl<T> holder = (ForgeConfigDataHolderImpl<T>) this.getHolder(clazz);
+        holder.setAtomicReload(atomicReload);
+        return this;
+    }
+
     @Override
     public void bakeConfigs(String modId) {
         this.configsByClass = ImmutableMap.copyOf(this.configsByClass);
@@ -88,6 +95,11 @@ public class ForgeConfigHolderImpl implements ConfigHolder.Builder {
                     holder.onModConfig(evt.getConfig(), true);
                 }
             });
+            modBus.addListener((final ModConfigEvent.Unloading evt) -> {
+                if (evt.getConfig().getModId().equals(modId)) {
+                    holder.onModConfigUnloading(evt.getConfig());
+                }
+            });
             holder.register((ModConfig.Type type, ForgeConfigSpec spec, UnaryOperator<String> fileName) -> {
                 ModContainer modContainer = PuzzlesUtilForge.findModContainer(modId);
                 ModConfig modConfig = new ModConfig(type, spec, modContainer, fileName.apply(modId));
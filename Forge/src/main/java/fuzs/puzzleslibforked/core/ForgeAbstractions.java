@@ -1,11 +1,26 @@
 package fuzs.puzzleslibforked.core;
 
+import fuzs.puzzleslibforked.mixin.accessor.ChunkMapAccessor;
+import fuzs.puzzleslibforked.mixin.accessor.TrackedEntityAccessor;
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ChunkMap;
+import net.minecraft.server.level.ServerChunkCache;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.network.ServerPlayerConnection;
 import net.minecraft.world.MenuProvider;
+import net.minecraft.world.entity.Entity;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.OnDatapackSyncEvent;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.network.NetworkHooks;
+import net.minecraftforge.server.ServerLifecycleHooks;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public final class ForgeAbstractions implements CommonAbstractions {
 
@@ -13,4 +28,32 @@ public final class ForgeAbstractions implements CommonAbstractions {
     public void openMenu(ServerPlayer player, MenuProvider menuProvider, BiConsumer<ServerPlayer, FriendlyByteBuf> screenOpeningDataWriter) {
         NetworkHooks.openGui(player, menuProvider, buf -> screenOpeningDataWriter.accept(player, buf));
     }
+
+    @Override
+    public void registerEndServerTick(Consumer<MinecraftServer> callback) {
+        MinecraftForge.EVENT_BUS.addListener((final TickEvent.ServerTickEvent evt) -> {
+            if (evt.phase == TickEvent.Phase.END) callback.accept(ServerLifecycleHooks.getCurrentServer());
+        });
+    }
+
+    @Override
+    public void registerTagsUpdated(Runnable callback) {
+        MinecraftForge.EVENT_BUS.addListener((final TagsUpdatedEvent evt) -> callback.run());
+    }
+
+    @Override
+    public void registerPlayerJoin(Consumer<ServerPlayer> callback) {
+        // fires while the player is being placed in the world, right after tags have been sent, player is only null when reloading data packs
+        MinecraftForge.EVENT_BUS.addListener((final OnDatapackSyncEvent evt) -> {
+            if (evt.getPlayer() != null) callback.accept(evt.getPlayer());
+        });
+    }
+
+    @Override
+    public Collection<ServerPlayer> getTrackingPlayers(Entity entity) {
+        ChunkMap chunkMap = ((ServerChunkCache) entity.getCommandSenderWorld().getChunkSource()).chunkMap;
+        Object trackedEntity = ((ChunkMapAccessor) chunkMap).getEntityMap().get(entity.getId());
+        if (trackedEntity == null) return List.of();
+        return ((TrackedEntityAccessor) trackedEntity).getSeenBy().stream().map(ServerPlayerConnection::getPlayer).toList();
+    }
 }
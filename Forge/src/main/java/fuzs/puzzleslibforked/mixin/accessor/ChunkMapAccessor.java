@@ -0,0 +1,13 @@
+package fuzs.puzzleslibforked.mixin.accessor;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import net.minecraft.server.level.ChunkMap;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(ChunkMap.class)
+public interface ChunkMapAccessor {
+
+    @Accessor
+    Int2ObjectMap<?> getEntityMap();
+}
@@ -3,6 +3,7 @@ package fuzs.puzzleslibforked.network;
 import com.google.common.collect.Maps;
 import fuzs.puzzleslibforked.core.DistTypeConverter;
 import fuzs.puzzleslibforked.proxy.Proxy;
+import io.netty.buffer.Unpooled;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.resources.ResourceLocation;
@@ -13,9 +14,9 @@ import net.minecraftforge.network.NetworkDirection;
 import net.minecraftforge.network.NetworkEvent;
 import net.minecraftforge.network.NetworkRegistry;
 import net.minecraftforge.network.simple.SimpleChannel;
+import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -23,7 +24,7 @@ import java.util.function.Supplier;
 /**
  * handler for network communications of all puzzles lib mods
  */
-public class ForgeNetworkHandler implements NetworkHandler {
+public class ForgeNetworkHandler extends NetworkHandlerImpl {
     /**
      * store network handlers created for a mod to avoid duplicate channels
      */
@@ -31,12 +32,16 @@ public class ForgeNetworkHandler implements NetworkHandler {
     /**
      * protocol version for testing client-server compatibility of this mod
      */
-    private static final String PROTOCOL_VERSION = Integer.toString(1);
+    private static final String PROTOCOL_VERSION = Integer.toString(2);
 
     /**
      * channel for sending messages
      */
     private final SimpleChannel channel;
+    /**
+     * name of {@link #channel}, needed for building packets
+     */
+    private final ResourceLocation channelName;
     /**
      * are servers without this mod or vanilla compatible
      * <p>only stored to ensure other handlers for this mod are created validly
@@ -47,36 +52,37 @@ public class ForgeNetworkHandler implements NetworkHandler {
      * <p>only stored to ensure other handlers for this mod are created validly
      */
     private final boolean serverAcceptsVanillaOrMissing;
-    /**
-     * message index
-     */
-    private final AtomicInteger discriminator = new AtomicInteger();
 
     /**
+     * @param modId mod id for channel name
+     * @param channelName name of the channel
      * @param channel mod network channel
      */
-    private ForgeNetworkHandler(SimpleChannel channel, boolean clientAcceptsVanillaOrMissing, boolean serverAcceptsVanillaOrMissing) {
+    private ForgeNetworkHandler(String modId, ResourceLocation channelName, SimpleChannel channel, boolean clientAcceptsVanillaOrMissing, boolean serverAcceptsVanillaOrMissing) {
+        super(modId);
         this.channel = channel;
+        this.channelName = channelName;
         this.clientAcceptsVanillaOrMissing = clientAcceptsVanillaOrMissing;
         this.serverAcceptsVanillaOrMissing = serverAcceptsVanillaOrMissing;
     }
 
     @SuppressWarnings("unchecked")
     @Override
-    public <T extends Message<T>> void register(Class<? extends T> clazz, Supplier<T> factory, MessageDirection direction) {
-        BiConsumer<T, FriendlyByteBuf> encode = Message::write;
-        Function<FriendlyByteBuf, T> decode = buf -> {
-            T message = factory.get();
-            message.read(buf);
-            return message;
-        };
+    protected <T extends Message<T>> void registerMessageType(MessageType<T> type) {
+        BiConsumer<T, FriendlyByteBuf> encode = (message, buf) -> this.encode(type, message, buf);
+        Function<FriendlyByteBuf, T> decode = buf -> this.decode(type, buf);
         BiConsumer<T, Supplier<NetworkEvent.Context>> handle = (message, supplier) -> {
             NetworkEvent.Context context = supplier.get();
-            final LogicalSide receptionSide = DistTypeConverter.toLogicalSide(direction.getReceptionSide());
+            final LogicalSide receptionSide = DistTypeConverter.toLogicalSide(type.direction().getReceptionSide());
             LogicalSide expectedReceptionSide = context.getDirection().getReceptionSide();
             if (expectedReceptionSide != receptionSide) {
                 throw new IllegalStateException(String.format("Received message on wrong side, expected %s, was %s", receptionSide, expectedReceptionSide));
             }
+            context.setPacketHandled(true);
+            // still on the network thread, so flooding clients never make it onto the main thread
+            if (receptionSide.isServer() && !this.tryReceive(type, context.getSender())) return;
+            BiConsumer<Player, Object> messageHandler = this.receive(type, message, receptionSide.isServer() ? context.getSender() : null);
+            if (messageHandler == null) return;
             context.enqueueWork(() -> {
                 // this needs to happen in here, otherwise Minecraft#player might still be null for events fired on login/entity creation
                 Player player;
@@ -85,21 +91,28 @@ public class ForgeNetworkHandler implements NetworkHandler {
                 } else {
                     player = context.getSender();
                 }
-                message.handle(player, LogicalSidedProvider.WORKQUEUE.get(receptionSide));
+                messageHandler.accept(player, LogicalSidedProvider.WORKQUEUE.get(receptionSide));
             });
-            context.setPacketHandled(true);
         };
-        this.channel.registerMessage(this.discriminator.getAndIncrement(), (Class<T>) clazz, encode, decode, handle);
+        this.channel.registerMessage(type.id(), (Class<T>) type.clazz(), encode, decode, handle);
     }
 
     @Override
-    public Packet<?> toServerboundPacket(Message<?> message) {
-        return this.channel.toVanillaPacket(message, NetworkDirection.PLAY_TO_SERVER);
+    protected FriendlyByteBuf createPacketBuffer(MessageType<?> type) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        // discriminator, same as written by the simple channel itself
+        buf.writeByte(type.id());
+        return buf;
     }
 
     @Override
-    public Packet<?> toClientboundPacket(Message<?> message) {
-        return this.channel.toVanillaPacket(message, NetworkDirection.PLAY_TO_CLIENT);
+    protected Packet<?> toServerboundPacket(MessageType<?> type, FriendlyByteBuf buf) {
+        return NetworkDirection.PLAY_TO_SERVER.buildPacket(Pair.of(buf, Integer.MIN_VALUE), this.channelName).getThis();
+    }
+
+    @Override
+    protected Packet<?> toClientboundPacket(MessageType<?> type, FriendlyByteBuf buf) {
+        return NetworkDirection.PLAY_TO_CLIENT.buildPacket(Pair.of(buf, Integer.MIN_VALUE), this.channelName).getThis();
     }
 
     /**
@@ -112,7 +125,8 @@ public class ForgeNetworkHandler implements NetworkHandler {
      */
     public synchronized static NetworkHandler of(String modId, boolean clientAcceptsVanillaOrMissing, boolean serverAcceptsVanillaOrMissing) {
         ForgeNetworkHandler handler = MOD_TO_NETWORK.computeIfAbsent(modId, modId1 -> {
-            return new ForgeNetworkHandler(buildSimpleChannel(modId1, clientAcceptsVanillaOrMissing, serverAcceptsVanillaOrMissing), clientAcceptsVanillaOrMissing, serverAcceptsVanillaOrMissing);
+            ResourceLocation channelName = new ResourceLocation(modId1, "play");
+            return new ForgeNetworkHandler(modId1, channelName, buildSimpleChannel(channelName, clientAcceptsVanillaOrMissing, serverAcceptsVanillaOrMissing), clientAcceptsVanillaOrMissing, serverAcceptsVanillaOrMissing);
         });
         if (handler.clientAcceptsVanillaOrMissing != clientAcceptsVanillaOrMissing) throw new IllegalArgumentException("client channel settings mismatch, expected %s, but was %s".formatted(handler.clientAcceptsVanillaOrMissing, clientAcceptsVanillaOrMissing));
         if (handler.serverAcceptsVanillaOrMissing != serverAcceptsVanillaOrMissing) throw new IllegalArgumentException("server channel settings mismatch, expected %s, but was %s".formatted(handler.serverAcceptsVanillaOrMissing, serverAcceptsVanillaOrMissing));
@@ -122,14 +136,14 @@ public class ForgeNetworkHandler implements NetworkHandler {
     /**
      * creates a configured channel
      *
-     * @param modId id for channel name
+     * @param channelName name of the channel
      * @param clientAcceptsVanillaOrMissing are servers without this mod or vanilla compatible
      * @param serverAcceptsVanillaOrMissing are clients without this mod or vanilla compatible
      * @return configured channel
      */
-    private static SimpleChannel buildSimpleChannel(String modId, boolean clientAcceptsVanillaOrMissing, boolean serverAcceptsVanillaOrMissing) {
+    private static SimpleChannel buildSimpleChannel(ResourceLocation channelName, boolean clientAcceptsVanillaOrMissing, boolean serverAcceptsVanillaOrMissing) {
         return NetworkRegistry.ChannelBuilder
-                .named(new ResourceLocation(modId, "play"))
+                .named(channelName)
                 .networkProtocolVersion(() -> PROTOCOL_VERSION)
                 .clientAcceptedVersions(clientAcceptsVanillaOrMissing ? NetworkRegistry.acceptMissingOr(PROTOCOL_VERSION) : PROTOCOL_VERSION::equals)
                 .serverAcceptedVersions(serverAcceptsVanillaOrMissing ? NetworkRegistry.acceptMissingOr(PROTOCOL_VERSION) : PROTOCOL_VERSION::equals)
@@ -0,0 +1,407 @@
+package fuzs.puzzleslibforked.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * generates a <code>ConfigBinder</code> for every config class with fields annotated with <code>@Config</code>,
+ * binders define config values and apply them using plain field access, so <code>AnnotatedConfigBuilder</code> does not have to use reflection
+ * <p>output mirrors <code>AnnotatedConfigBuilder</code>, when a class cannot be handled (e.g. private fields) no binder is generated and reflection is used at runtime
+ */
+@SupportedAnnotationTypes(ConfigBinderProcessor.CONFIG_ANNOTATION)
+public class ConfigBinderProcessor extends AbstractProcessor {
+    static final String CONFIG_ANNOTATION = "fuzs.puzzleslibforked.config.annotation.Config";
+    private static final String INT_RANGE_ANNOTATION = CONFIG_ANNOTATION + ".IntRange";
+    private static final String LONG_RANGE_ANNOTATION = CONFIG_ANNOTATION + ".LongRange";
+    private static final String DOUBLE_RANGE_ANNOTATION = CONFIG_ANNOTATION + ".DoubleRange";
+    private static final String ALLOWED_VALUES_ANNOTATION = CONFIG_ANNOTATION + ".AllowedValues";
+    private static final String CONFIG_CORE = "fuzs.puzzleslibforked.config.ConfigCore";
+    private static final String CONFIG_BINDER = "fuzs.puzzleslibforked.config.annotation.ConfigBinder";
+    private static final String ANNOTATED_CONFIG_BUILDER = "fuzs.puzzleslibforked.config.annotation.AnnotatedConfigBuilder";
+    private static final String BINDER_SUFFIX = "_ConfigBinder";
+
+    /**
+     * binders generated in previous rounds
+     */
+    private final Set<String> generatedBinders = new HashSet<>();
+    private Elements elements;
+    private Types types;
+    private Messager messager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement configAnnotation = this.elements.getTypeElement(CONFIG_ANNOTATION);
+        TypeElement configCore = this.elements.getTypeElement(CONFIG_CORE);
+        if (configAnnotation == null || configCore == null) return false;
+        Set<TypeElement> targets = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(configAnnotation)) {
+            if (element.getEnclosingElement() instanceof TypeElement typeElement) {
+                targets.add(typeElement);
+            }
+        }
+        for (TypeElement target : targets) {
+            if (!this.types.isAssignable(this.types.erasure(target.asType()), this.types.erasure(configCore.asType()))) continue;
+            String binderName = getBinderName(target);
+            if (!this.generatedBinders.add(binderName)) continue;
+            try {
+                this.generateBinder(target, binderName, configCore);
+            } catch (UnsupportedTargetException e) {
+                this.messager.printMessage(Diagnostic.Kind.NOTE, "Not generating config binder, reflection will be used instead: %s".formatted(e.getMessage()), e.element);
+            } catch (IOException e) {
+                this.messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write config binder %s: %s".formatted(binderName, e.getMessage()), target);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param target    config class
+     * @return          binary name of the binder for <code>target</code>, nested classes are separated by underscores
+     */
+    private String getBinderName(TypeElement target) {
+        String packageName = this.elements.getPackageOf(target).getQualifiedName().toString();
+        String name = this.elements.getBinaryName(target).toString();
+        int packageEnd = packageName.isEmpty() ? 0 : packageName.length() + 1;
+        return name.substring(0, packageEnd) + name.substring(packageEnd).replace('$', '_') + BINDER_SUFFIX;
+    }
+
+    /**
+     * writes the binder source file
+     *
+     * @param target        config class
+     * @param binderName    binary name of the binder
+     * @param configCore    <code>ConfigCore</code> element
+     */
+    private void generateBinder(TypeElement target, String binderName, TypeElement configCore) throws IOException {
+        PackageElement packageElement = this.elements.getPackageOf(target);
+        if (!target.getTypeParameters().isEmpty()) throw new UnsupportedTargetException("generic config class", target);
+        if (!this.isAccessible(target, packageElement)) throw new UnsupportedTargetException("config class is not accessible", target);
+        // keep the order of fields the same as the reflective builder, first this class, then super classes
+        Map<List<String>, List<VariableElement>> fieldsByCategory = new LinkedHashMap<>();
+        List<Element> originatingElements = new ArrayList<>();
+        originatingElements.add(target);
+        for (TypeElement current = target; current != null; current = this.getSuperclass(current)) {
+            if (current != target) originatingElements.add(current);
+            for (Element element : current.getEnclosedElements()) {
+                if (element.getKind() != ElementKind.FIELD) continue;
+                AnnotationMirror annotation = this.findAnnotation(element, CONFIG_ANNOTATION);
+                if (annotation == null) continue;
+                if (!this.isAccessible(element, packageElement)) throw new UnsupportedTargetException("field %s is not accessible".formatted(element.getSimpleName()), element);
+                TypeElement typeElement = this.asTypeElement(element.asType());
+                if (typeElement != null && !this.isAccessible(typeElement, packageElement)) throw new UnsupportedTargetException("type of field %s is not accessible".formatted(element.getSimpleName()), element);
+                List<String> category = this.getStrings(annotation, "category");
+                fieldsByCategory.computeIfAbsent(category, key -> new ArrayList<>()).add((VariableElement) element);
+            }
+        }
+        StringBuilder body = new StringBuilder();
+        boolean hasInstanceFields = false;
+        int fieldIndex = 0;
+        for (Map.Entry<List<String>, List<VariableElement>> entry : fieldsByCategory.entrySet()) {
+            List<String> path = entry.getKey();
+            for (String category : path) {
+                body.append("        builder.push(").append(literal(category)).append(");\n");
+            }
+            for (VariableElement field : entry.getValue()) {
+                hasInstanceFields |= !field.getModifiers().contains(Modifier.STATIC);
+                this.appendField(body, field, configCore, fieldIndex++);
+            }
+            if (!path.isEmpty()) body.append("        builder.pop(").append(path.size()).append(");\n");
+        }
+        String packageName = packageElement.getQualifiedName().toString();
+        String simpleName = binderName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1);
+        String targetName = target.getQualifiedName().toString();
+        try (Writer writer = this.processingEnv.getFiler().createSourceFile(binderName, originatingElements.toArray(Element[]::new)).openWriter()) {
+            if (!packageName.isEmpty()) writer.write("package " + packageName + ";\n\n");
+            writer.write("/**\n * config binder for {@link " + targetName + "}, generated from <code>@Config</code> annotations\n */\n");
+            writer.write("@javax.annotation.processing.Generated(\"" + ConfigBinderProcessor.class.getName() + "\")\n");
+            writer.write("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+            writer.write("public final class " + simpleName + " implements " + CONFIG_BINDER + "<" + targetName + "> {\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public void bind(fuzs.puzzleslibforked.config.core.AbstractConfigBuilder builder, fuzs.puzzleslibforked.config.ConfigDataHolderImpl<?> context, " + targetName + " instance, java.util.function.Function<Object, Object> owner) {\n");
+            if (hasInstanceFields) writer.write("        java.util.Objects.requireNonNull(instance, \"Null instance for non-static field\");\n");
+            writer.write(body.toString());
+            writer.write("    }\n}\n");
+        }
+    }
+
+    /**
+     * appends code defining a config value for a single field
+     *
+     * @param body          method body to append to
+     * @param field         the annotated field
+     * @param configCore    <code>ConfigCore</code> element
+     * @param fieldIndex    index for naming local variables
+     */
+    private void appendField(StringBuilder body, VariableElement field, TypeElement configCore, int fieldIndex) {
+        AnnotationMirror annotation = this.findAnnotation(field, CONFIG_ANNOTATION);
+        String name = this.getString(annotation, "name");
+        if (name.isBlank()) name = toLowerUnderscore(field.getSimpleName().toString());
+        List<String> description = this.getStrings(annotation, "description");
+        String declaringName = ((TypeElement) field.getEnclosingElement()).getQualifiedName().toString();
+        boolean isStatic = field.getModifiers().contains(Modifier.STATIC);
+        // read from the instance the builder is working with, write to the instance the value is being applied to
+        String read = isStatic ? declaringName + "." + field.getSimpleName() : "((" + declaringName + ") instance)." + field.getSimpleName();
+        String write = isStatic ? declaringName + "." + field.getSimpleName() : "((" + declaringName + ") owner.apply(config))." + field.getSimpleName();
+        TypeMirror type = field.asType();
+        String typeName = this.types.erasure(type).toString();
+
+        if (!description.isEmpty()) body.append("        builder.comment(").append(literals(description)).append(");\n");
+
+        if (this.types.isAssignable(this.types.erasure(type), this.types.erasure(configCore.asType()))) {
+            body.append("        builder.push(").append(literal(name)).append(");\n");
+            body.append("        ").append(ANNOTATED_CONFIG_BUILDER).append(".serialize(builder, context, ").append(typeName).append(".class, ").append(read).append(", config -> ").append(write).append(");\n");
+            body.append("        builder.pop();\n");
+            return;
+        }
+
+        // final fields are permitted until here, since values must be able to change
+        if (field.getModifiers().contains(Modifier.FINAL)) throw new UnsupportedTargetException("field %s may not be final".formatted(field.getSimpleName()), field);
+
+        if (this.getBoolean(annotation, "worldRestart")) body.append("        builder.worldRestart();\n");
+
+        AnnotationMirror allowedValuesAnnotation = this.findAnnotation(field, ALLOWED_VALUES_ANNOTATION);
+        List<String> allowedValues = allowedValuesAnnotation != null ? this.getStrings(allowedValuesAnnotation, "values") : List.of();
+        String allowedValuesVariable = "allowedValues" + fieldIndex;
+        String allowedValuesPredicate = "o -> " + ANNOTATED_CONFIG_BUILDER + ".testAllowedValues(" + allowedValuesVariable + ", o)";
+        if (!allowedValues.isEmpty()) {
+            body.append("        String[] ").append(allowedValuesVariable).append(" = {").append(literals(allowedValues)).append("};\n");
+        }
+
+        String define;
+        String cast = "";
+        switch (type.getKind()) {
+            case BOOLEAN -> define = "builder.define(%s, %s)".formatted(literal(name), read);
+            case INT -> {
+                AnnotationMirror range = this.findAnnotation(field, INT_RANGE_ANNOTATION);
+                int min = range != null ? (Integer) this.getValue(range, "min") : Integer.MIN_VALUE;
+                int max = range != null ? (Integer) this.getValue(range, "max") : Integer.MAX_VALUE;
+                define = "builder.defineInRange(%s, %s, %s, %s)".formatted(literal(name), read, min, max);
+            }
+            case LONG -> {
+                AnnotationMirror range = this.findAnnotation(field, LONG_RANGE_ANNOTATION);
+                long min = range != null ? (Long) this.getValue(range, "min") : Long.MIN_VALUE;
+                long max = range != null ? (Long) this.getValue(range, "max") : Long.MAX_VALUE;
+                define = "builder.defineInRange(%s, %s, %sL, %sL)".formatted(literal(name), read, min, max);
+            }
+            case DOUBLE -> {
+                AnnotationMirror range = this.findAnnotation(field, DOUBLE_RANGE_ANNOTATION);
+                double min = range != null ? (Double) this.getValue(range, "min") : Double.MIN_VALUE;
+                double max = range != null ? (Double) this.getValue(range, "max") : Double.MAX_VALUE;
+                define = "builder.defineInRange(%s, %s, %s, %s)".formatted(literal(name), read, literal(min), literal(max));
+            }
+            case DECLARED -> {
+                TypeElement typeElement = (TypeElement) ((DeclaredType) type).asElement();
+                String qualifiedName = typeElement.getQualifiedName().toString();
+                if (qualifiedName.equals(String.class.getName())) {
+                    if (!allowedValues.isEmpty()) {
+                        body.append("        builder.comment(").append(this.allowedValuesComment(description, allowedValues)).append(");\n");
+                        define = "builder.define(%s, %s, %s)".formatted(literal(name), read, allowedValuesPredicate);
+                    } else {
+                        define = "builder.define(%s, %s)".formatted(literal(name), read);
+                    }
+                } else if (typeElement.getKind() == ElementKind.ENUM) {
+                    // allowed values line handled by forge
+                    if (!allowedValues.isEmpty()) {
+                        define = "builder.defineEnum(%s, %s, %s)".formatted(literal(name), read, allowedValuesPredicate);
+                    } else {
+                        define = "builder.defineEnum(%s, %s)".formatted(literal(name), read);
+                    }
+                } else if (qualifiedName.equals(List.class.getName())) {
+                    // currently, only supports a predicate for string and enum lists, might also want to add range check for number values
+                    if (!allowedValues.isEmpty()) {
+                        body.append("        builder.comment(").append(this.allowedValuesComment(description, allowedValues)).append(");\n");
+                        define = "builder.defineList(%s, (java.util.List<?>) %s, %s)".formatted(literal(name), read, allowedValuesPredicate);
+                    } else {
+                        define = "builder.defineList(%s, (java.util.List<?>) %s, o -> true)".formatted(literal(name), read);
+                    }
+                    cast = "(java.util.List) ";
+                } else {
+                    throw new UnsupportedTargetException("unsupported config value type %s".formatted(type), field);
+                }
+            }
+            default -> throw new UnsupportedTargetException("unsupported config value type %s".formatted(type), field);
+        }
+        body.append("        context.acceptInstanceValue(").append(define).append(", (config, value) -> ").append(write).append(" = ").append(cast).append("value);\n");
+    }
+
+    /**
+     * @param description   field description
+     * @param allowedValues allowed values
+     * @return              arguments for a comment consisting of the description and a line listing all allowed values
+     */
+    private String allowedValuesComment(List<String> description, List<String> allowedValues) {
+        List<String> comment = new ArrayList<>(description);
+        comment.add("Allowed Values: %s".formatted(String.join(", ", allowedValues)));
+        return literals(comment);
+    }
+
+    /**
+     * @param element   element to check
+     * @param from      package the generated binder is in
+     * @return          can <code>element</code> be accessed from a class in <code>from</code>
+     */
+    private boolean isAccessible(Element element, PackageElement from) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) return false;
+        if (!modifiers.contains(Modifier.PUBLIC) && !this.elements.getPackageOf(element).equals(from)) return false;
+        Element enclosing = element.getEnclosingElement();
+        return !(enclosing instanceof TypeElement) || this.isAccessible(enclosing, from);
+    }
+
+    /**
+     * @param type      a type
+     * @return          element for <code>type</code> if it is a declared type
+     */
+    private TypeElement asTypeElement(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) type).asElement() : null;
+    }
+
+    /**
+     * @param typeElement   a class
+     * @return              super class of <code>typeElement</code>, null when there is none or it is {@link Object}
+     */
+    private TypeElement getSuperclass(TypeElement typeElement) {
+        TypeElement superclass = this.asTypeElement(typeElement.getSuperclass());
+        if (superclass == null || superclass.getQualifiedName().contentEquals(Object.class.getName())) return null;
+        return superclass;
+    }
+
+    /**
+     * @param element           annotated element
+     * @param annotationName    canonical name of the annotation
+     * @return                  annotation on <code>element</code>, null when not present
+     */
+    private AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param annotation    annotation
+     * @param name          annotation method name
+     * @return              value set on <code>annotation</code>, or the default value
+     */
+    private Object getValue(AnnotationMirror annotation, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : this.elements.getElementValuesWithDefaults(annotation).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        throw new IllegalArgumentException("No value %s on annotation %s".formatted(name, annotation));
+    }
+
+    private String getString(AnnotationMirror annotation, String name) {
+        return (String) this.getValue(annotation, name);
+    }
+
+    private boolean getBoolean(AnnotationMirror annotation, String name) {
+        return (Boolean) this.getValue(annotation, name);
+    }
+
+    private List<String> getStrings(AnnotationMirror annotation, String name) {
+        List<String> values = new ArrayList<>();
+        for (Object value : (List<?>) this.getValue(annotation, name)) {
+            values.add((String) ((AnnotationValue) value).getValue());
+        }
+        return values;
+    }
+
+    /**
+     * same as <code>CaseFormat.LOWER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, name)</code> used by the reflective builder
+     *
+     * @param name      field name
+     * @return          name in lower underscore format
+     */
+    private static String toLowerUnderscore(String name) {
+        StringBuilder builder = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                if (i != 0) builder.append('_');
+                builder.append((char) (c + ('a' - 'A')));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String literals(List<String> values) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (String value : values) {
+            joiner.add(literal(value));
+        }
+        return joiner.toString();
+    }
+
+    private static String literal(double value) {
+        if (Double.isNaN(value)) return "Double.NaN";
+        if (Double.isInfinite(value)) return value > 0 ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY";
+        return Double.toString(value);
+    }
+
+    /**
+     * @param value     a string
+     * @return          java source literal for <code>value</code>
+     */
+    private static String literal(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        builder.append("\\u%04x".formatted((int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    /**
+     * thrown when no binder can be generated for a class
+     */
+    private static class UnsupportedTargetException extends RuntimeException {
+        final Element element;
+
+        UnsupportedTargetException(String message, Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+}